@@ -0,0 +1,202 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+
+// Entry points into the application classes. Those live in the default package, which
+// code in a named package cannot import (and JMH requires benchmarks to be in one), so
+// they are bound here as static final method handles. The JIT treats such handles as
+// constants and inlines through them, so calls cost the same as direct ones.
+// Application types appear as Object; primitives keep their types so nothing is boxed.
+final class Mst {
+    private static final MethodHandle NEW_GRAPH;
+    private static final MethodHandle ADD_NODE;
+    private static final MethodHandle ADD_EDGE;
+    private static final MethodHandle GRAPH_EDGES;
+    private static final MethodHandle GRAPH_NODES;
+    private static final MethodHandle NEW_EDGE_LIST;
+    private static final MethodHandle SORT_BY_WEIGHT;
+    private static final MethodHandle NEW_UNION_FIND;
+    private static final MethodHandle FIND;
+    private static final MethodHandle UNION;
+    private static final MethodHandle KRUSKAL;
+    private static final MethodHandle PRIM;
+    private static final MethodHandle NEW_SOLVER;
+    private static final MethodHandle SOLVER_KRUSKAL;
+    private static final MethodHandle SOLVER_PRIM;
+    private static final MethodHandle NEW_READER;
+    private static final MethodHandle NEXT_GRAPH;
+    private static final MethodHandle GENERATE;
+    private static final MethodHandle EDGE_SRC;
+    private static final MethodHandle EDGE_DEST;
+    private static final MethodHandle EDGE_COUNT;
+
+    static {
+        try {
+            Class<?> graph = type("Graph");
+            Class<?> edgeList = type("EdgeList");
+            Class<?> nodes = type("NodeDictionary");
+            Class<?> unionFind = type("UnionFind");
+            Class<?> reader = type("GraphReader");
+
+            NEW_GRAPH = erase(lookup(graph).findConstructor(graph, MethodType.methodType(void.class)));
+            ADD_NODE = erase(lookup(graph).findVirtual(graph, "addNode", MethodType.methodType(int.class, String.class)));
+            ADD_EDGE = erase(lookup(graph).findVirtual(graph, "addEdge",
+                    MethodType.methodType(void.class, int.class, int.class, int.class)));
+            GRAPH_EDGES = erase(lookup(graph).findGetter(graph, "edges", edgeList));
+            GRAPH_NODES = erase(lookup(graph).findGetter(graph, "nodes", nodes));
+            NEW_EDGE_LIST = erase(lookup(edgeList).findConstructor(edgeList,
+                    MethodType.methodType(void.class, int[].class, int[].class, int[].class, int.class)));
+            SORT_BY_WEIGHT = erase(lookup(edgeList).findVirtual(edgeList, "sortByWeight", MethodType.methodType(void.class)));
+            NEW_UNION_FIND = erase(lookup(unionFind).findConstructor(unionFind, MethodType.methodType(void.class, int.class)));
+            FIND = erase(lookup(unionFind).findVirtual(unionFind, "find", MethodType.methodType(int.class, int.class)));
+            UNION = erase(lookup(unionFind).findVirtual(unionFind, "union",
+                    MethodType.methodType(void.class, int.class, int.class)));
+            Class<?> kruskal = type("KruskalAlgorithm");
+            KRUSKAL = erase(lookup(kruskal).findStatic(kruskal, "kruskalMST",
+                    MethodType.methodType(List.class, edgeList, nodes)));
+            Class<?> prim = type("PrimAlgorithm");
+            PRIM = erase(lookup(prim).findStatic(prim, "primMST", MethodType.methodType(List.class, edgeList, nodes)));
+            Class<?> solver = type("MSTSolver");
+            Class<?> mode = type("PrimAlgorithm$Mode");
+            NEW_SOLVER = erase(lookup(solver).findConstructor(solver, MethodType.methodType(void.class)));
+            SOLVER_KRUSKAL = erase(lookup(solver).findVirtual(solver, "kruskalMST",
+                    MethodType.methodType(List.class, edgeList, nodes)));
+            // Heap mode is bound in, matching primMST above
+            SOLVER_PRIM = erase(MethodHandles.insertArguments(lookup(solver).findVirtual(solver, "primMST",
+                    MethodType.methodType(List.class, edgeList, nodes, mode)), 3, heapMode(mode)));
+            NEW_READER = erase(lookup(reader).findConstructor(reader,
+                    MethodType.methodType(void.class, ReadableByteChannel.class)));
+            NEXT_GRAPH = erase(lookup(reader).findVirtual(reader, "next", MethodType.methodType(graph)));
+            Class<?> generator = type("JSONGenerator");
+            GENERATE = erase(lookup(generator).findStatic(generator, "generateEdges",
+                    MethodType.methodType(edgeList, String.class, int.class, long.class, long.class)));
+            EDGE_SRC = erase(lookup(edgeList).findGetter(edgeList, "src", int[].class));
+            EDGE_DEST = erase(lookup(edgeList).findGetter(edgeList, "dest", int[].class));
+            EDGE_COUNT = erase(lookup(edgeList).findVirtual(edgeList, "size", MethodType.methodType(int.class)));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Mst() {
+    }
+
+    static Object newGraph() throws Throwable {
+        return (Object) NEW_GRAPH.invokeExact();
+    }
+
+    static int addNode(Object graph, String name) throws Throwable {
+        return (int) ADD_NODE.invokeExact(graph, name);
+    }
+
+    static void addEdge(Object graph, int from, int to, int weight) throws Throwable {
+        ADD_EDGE.invokeExact(graph, from, to, weight);
+    }
+
+    static Object edges(Object graph) throws Throwable {
+        return (Object) GRAPH_EDGES.invokeExact(graph);
+    }
+
+    static Object nodes(Object graph) throws Throwable {
+        return (Object) GRAPH_NODES.invokeExact(graph);
+    }
+
+    static Object newEdgeList(int[] src, int[] dest, int[] weight, int size) throws Throwable {
+        return (Object) NEW_EDGE_LIST.invokeExact(src, dest, weight, size);
+    }
+
+    static void sortByWeight(Object edges) throws Throwable {
+        SORT_BY_WEIGHT.invokeExact(edges);
+    }
+
+    static Object newUnionFind(int size) throws Throwable {
+        return (Object) NEW_UNION_FIND.invokeExact(size);
+    }
+
+    static int find(Object unionFind, int x) throws Throwable {
+        return (int) FIND.invokeExact(unionFind, x);
+    }
+
+    static void union(Object unionFind, int x, int y) throws Throwable {
+        UNION.invokeExact(unionFind, x, y);
+    }
+
+    static List<?> kruskalMST(Object edges, Object nodes) throws Throwable {
+        return (List<?>) KRUSKAL.invokeExact(edges, nodes);
+    }
+
+    static List<?> primMST(Object edges, Object nodes) throws Throwable {
+        return (List<?>) PRIM.invokeExact(edges, nodes);
+    }
+
+    static Object newSolver() throws Throwable {
+        return (Object) NEW_SOLVER.invokeExact();
+    }
+
+    static List<?> kruskalMST(Object solver, Object edges, Object nodes) throws Throwable {
+        return (List<?>) SOLVER_KRUSKAL.invokeExact(solver, edges, nodes);
+    }
+
+    static List<?> primMST(Object solver, Object edges, Object nodes) throws Throwable {
+        return (List<?>) SOLVER_PRIM.invokeExact(solver, edges, nodes);
+    }
+
+    static Object newReader(ReadableByteChannel channel) throws Throwable {
+        return (Object) NEW_READER.invokeExact(channel);
+    }
+
+    static Object nextGraph(Object reader) throws Throwable {
+        return (Object) NEXT_GRAPH.invokeExact(reader);
+    }
+
+    // Edge list of a JSONGenerator topology; edges < 0 uses the topology's default size
+    static Object generateEdges(String topology, int vertices, long edges, long seed) throws Throwable {
+        return (Object) GENERATE.invokeExact(topology, vertices, edges, seed);
+    }
+
+    static int[] src(Object edges) throws Throwable {
+        return (int[]) EDGE_SRC.invokeExact(edges);
+    }
+
+    static int[] dest(Object edges) throws Throwable {
+        return (int[]) EDGE_DEST.invokeExact(edges);
+    }
+
+    static int edgeCount(Object edges) throws Throwable {
+        return (int) EDGE_COUNT.invokeExact(edges);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object heapMode(Class<?> mode) {
+        return Enum.valueOf((Class) mode, "HEAP");
+    }
+
+    private static Class<?> type(String name) throws ClassNotFoundException {
+        return Class.forName(name, true, Mst.class.getClassLoader());
+    }
+
+    // The application classes are package-private; on the class path every package is open
+    private static MethodHandles.Lookup lookup(Class<?> target) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(target, MethodHandles.lookup());
+    }
+
+    // Replaces application types in the signature with Object
+    private static MethodHandle erase(MethodHandle handle) {
+        MethodType type = handle.type();
+        for (int i = 0; i < type.parameterCount(); i++) {
+            if (!type.parameterType(i).isPrimitive() && type.parameterType(i).getPackageName().isEmpty()
+                    && !type.parameterType(i).isArray()) {
+                type = type.changeParameterType(i, Object.class);
+            }
+        }
+        Class<?> result = type.returnType();
+        if (!result.isPrimitive() && !result.isArray() && result.getPackageName().isEmpty()) {
+            type = type.changeReturnType(Object.class);
+        }
+        return handle.asType(type);
+    }
+}
@@ -0,0 +1,48 @@
+package bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Both MST engines on an already parsed graph. kruskalMST sorts its edge list in place,
+// so it runs on a fresh copy; SortBenchmark.copyEdges gives the cost of that copy.
+// The *Reused variants run on a per-thread MSTSolver, whose scratch buffers are warm
+// after the first call; with -prof gc they show what is left: the output (and the copy).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MstBenchmark {
+
+    @Benchmark
+    public List<?> kruskalMST(Workload workload) throws Throwable {
+        return Mst.kruskalMST(workload.copyEdges(), Mst.nodes(workload.graph));
+    }
+
+    @Benchmark
+    public List<?> primMST(Workload workload) throws Throwable {
+        return Mst.primMST(Mst.edges(workload.graph), Mst.nodes(workload.graph));
+    }
+
+    @State(Scope.Thread)
+    public static class Solver {
+        Object solver;
+
+        @Setup
+        public void create() throws Throwable {
+            solver = Mst.newSolver();
+        }
+    }
+
+    @Benchmark
+    public List<?> kruskalMSTReused(Workload workload, Solver solver) throws Throwable {
+        return Mst.kruskalMST(solver.solver, workload.copyEdges(), Mst.nodes(workload.graph));
+    }
+
+    @Benchmark
+    public List<?> primMSTReused(Workload workload, Solver solver) throws Throwable {
+        return Mst.primMST(solver.solver, Mst.edges(workload.graph), Mst.nodes(workload.graph));
+    }
+}
@@ -0,0 +1,55 @@
+package bench;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// JSON parsing alone: bytes in memory to a Graph, no disk and no console output.
+// parseLargeSparse reads one big sparse graph whose node names mostly go through the
+// symbol table's hash path, with tables far larger than the caches, which is where name
+// lookups and table growth dominate parsing.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParserBenchmark {
+
+    @Benchmark
+    public Object parse(Workload workload) throws Throwable {
+        Object reader = Mst.newReader(Channels.newChannel(new ByteArrayInputStream(workload.json)));
+        return Mst.nextGraph(reader);
+    }
+
+    // A fixed heap that fits the graph keeps heap resizing and full collections out of the timings
+    @Benchmark
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    @Fork(value = 2, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+    public Object parseLargeSparse(LargeSparse workload) throws Throwable {
+        Object reader = Mst.newReader(Channels.newChannel(new ByteArrayInputStream(workload.json)));
+        return Mst.nextGraph(reader);
+    }
+
+    // Sparse JSONGenerator topology at a size of its own, independent of Workload's vertex grid
+    @State(Scope.Benchmark)
+    public static class LargeSparse {
+        @Param({"2000000"})
+        public int sparseVertices;
+
+        byte[] json;
+
+        @Setup
+        public void generate() throws Throwable {
+            Workload workload = new Workload();
+            workload.vertices = sparseVertices;
+            workload.density = 1;
+            workload.weightRange = 1000000;
+            workload.topology = "sparse";
+            workload.generate();
+            json = workload.json;
+        }
+    }
+}
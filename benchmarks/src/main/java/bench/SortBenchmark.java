@@ -0,0 +1,27 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// EdgeList.sortByWeight on a fresh copy of the edges. copyEdges measures the copy on its
+// own, so the sort cost is the difference between the two.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SortBenchmark {
+
+    @Benchmark
+    public Object copyEdges(Workload workload) throws Throwable {
+        return workload.copyEdges();
+    }
+
+    @Benchmark
+    public Object sortByWeight(Workload workload) throws Throwable {
+        Object edges = workload.copyEdges();
+        Mst.sortByWeight(edges);
+        return edges;
+    }
+}
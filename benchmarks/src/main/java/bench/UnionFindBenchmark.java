@@ -0,0 +1,32 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// UnionFind on its own, driven by the workload's edges in input order: the same
+// find/find/union pattern Kruskal produces, without the sort
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UnionFindBenchmark {
+
+    @Benchmark
+    public int unionEdges(Workload workload) throws Throwable {
+        Object uf = Mst.newUnionFind(workload.vertices);
+        int[] src = workload.src;
+        int[] dest = workload.dest;
+        int unions = 0;
+        for (int e = 0; e < workload.edgeCount; e++) {
+            int rootSrc = Mst.find(uf, src[e]);
+            int rootDest = Mst.find(uf, dest[e]);
+            if (rootSrc != rootDest) {
+                Mst.union(uf, rootSrc, rootDest);
+                unions++;
+            }
+        }
+        return unions;
+    }
+}
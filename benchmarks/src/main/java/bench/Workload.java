@@ -0,0 +1,115 @@
+package bench;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Random connected graph shared by all benchmarks: a random spanning tree plus extra
+// random edges, generated from a fixed seed so every run and every commit measures the
+// same input. The graph is available as edge arrays, as an application Graph and as JSON.
+// Other topology values take the graph from the matching JSONGenerator family instead.
+@State(Scope.Benchmark)
+public class Workload {
+    // Dense families get a fixed share of all vertex pairs; at the default 100000 vertices
+    // near_complete alone would be about 5e9 edges, so such combinations are refused
+    private static final long MAX_DENSE_PAIRS = 1L << 24;
+
+    @Param({"1000", "100000"})
+    public int vertices;
+
+    // Average number of edges per vertex
+    @Param({"2", "16"})
+    public int density;
+
+    // Weights are drawn from 1..weightRange; small ranges take the counting-sort path
+    @Param({"100", "1000000"})
+    public int weightRange;
+
+    // "uniform", or a JSONGenerator topology: sparse, grid, power_law, near_complete, dense.
+    // Only uniform uses density; the generator families have their own edge counts.
+    @Param({"uniform"})
+    public String topology;
+
+    int[] src, dest, weight;
+    int edgeCount;
+    Object graph; // Graph
+    byte[] json;
+
+    @Setup
+    public void generate() throws Throwable {
+        SplittableRandom random = new SplittableRandom(42);
+        if (topology.equals("uniform")) {
+            edgeCount = Math.max(vertices - 1, vertices * density);
+            src = new int[edgeCount];
+            dest = new int[edgeCount];
+            weight = new int[edgeCount];
+            for (int e = 0; e < edgeCount; e++) {
+                if (e < vertices - 1) {
+                    src[e] = random.nextInt(e + 1);
+                    dest[e] = e + 1;
+                } else {
+                    src[e] = random.nextInt(vertices);
+                    dest[e] = random.nextInt(vertices);
+                }
+                weight[e] = 1 + random.nextInt(weightRange);
+            }
+        } else {
+            long pairs = (long) vertices * (vertices - 1) / 2;
+            if ((topology.equalsIgnoreCase("dense") || topology.equalsIgnoreCase("near_complete")) && pairs > MAX_DENSE_PAIRS) {
+                throw new IllegalArgumentException("topology=" + topology + " at " + vertices
+                        + " vertices is too large; use -p vertices=5000 or fewer");
+            }
+            Object edges = Mst.generateEdges(topology, vertices, -1, 42);
+            edgeCount = Mst.edgeCount(edges);
+            src = Arrays.copyOf(Mst.src(edges), edgeCount);
+            dest = Arrays.copyOf(Mst.dest(edges), edgeCount);
+            weight = new int[edgeCount];
+            for (int e = 0; e < edgeCount; e++) {
+                weight[e] = 1 + random.nextInt(weightRange); // same weight distribution as uniform
+            }
+        }
+
+        graph = Mst.newGraph();
+        for (int v = 0; v < vertices; v++) {
+            Mst.addNode(graph, nodeName(v));
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            Mst.addEdge(graph, src[e], dest[e], weight[e]);
+        }
+
+        StringBuilder text = new StringBuilder(edgeCount * 48);
+        text.append("{\"graphs\": [{\"id\": 1, \"nodes\": [");
+        for (int v = 0; v < vertices; v++) {
+            text.append(v > 0 ? ", \"" : "\"").append(nodeName(v)).append('"');
+        }
+        text.append("], \"edges\": [\n");
+        for (int e = 0; e < edgeCount; e++) {
+            text.append(e > 0 ? ",\n" : "")
+                    .append("{\"from\": \"").append(nodeName(src[e]))
+                    .append("\", \"to\": \"").append(nodeName(dest[e]))
+                    .append("\", \"weight\": ").append(weight[e]).append('}');
+        }
+        text.append("]}]}\n");
+        json = text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Fresh copy of the edge list, for operations that reorder it in place
+    Object copyEdges() throws Throwable {
+        return Mst.newEdgeList(src.clone(), dest.clone(), weight.clone(), edgeCount);
+    }
+
+    // Same naming scheme as JSONGenerator: A..Z, AA, AB, ...
+    static String nodeName(int index) {
+        StringBuilder name = new StringBuilder();
+        while (index >= 0) {
+            name.insert(0, (char) ('A' + index % 26));
+            index = index / 26 - 1;
+        }
+        return name.toString();
+    }
+}
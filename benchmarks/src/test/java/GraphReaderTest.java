@@ -0,0 +1,72 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+// Lives in the default package, next to the application classes it tests
+class GraphReaderTest {
+    private static final String EMOJI = "😀"; // U+1F600, outside the Basic Multilingual Plane
+
+    private static Graph parse(String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        try (GraphReader reader = new GraphReader(Channels.newChannel(new ByteArrayInputStream(bytes)))) {
+            return reader.next();
+        }
+    }
+
+    private static String graphWithName(String escapedName) {
+        return "{\"graphs\": [{\"id\": 1, \"nodes\": [\"" + escapedName + "\", \"b\"], "
+                + "\"edges\": [{\"from\": \"" + escapedName + "\", \"to\": \"b\", \"weight\": 3}]}]}";
+    }
+
+    @Test
+    void escapedSurrogatePairDecodesToOneCharacter() throws Exception {
+        Graph graph = parse(graphWithName("\\ud83d\\ude00"));
+
+        assertEquals(2, graph.nodeCount());
+        assertEquals(EMOJI, graph.nodes.name(0));
+        assertEquals(0, graph.nodes.indexOf(EMOJI));
+
+        MSTResult result = KruskalAlgorithm.solve(graph, KruskalAlgorithm.Engine.CLASSIC);
+        assertEquals(EMOJI, result.mstEdges.get(0).from);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ResultWriter writer = new ResultWriter(Channels.newChannel(out), true)) {
+            writer.write(result);
+        }
+        // A strict decoder rejects the CESU-8 a per-escape encoding would produce
+        String text = StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(out.toByteArray())).toString();
+        assertTrue(text.contains("\"from\":\"" + EMOJI + "\""), text);
+    }
+
+    @Test
+    void rawUtf8NameMatchesEscapedName() throws Exception {
+        Graph escaped = parse(graphWithName("\\ud83d\\ude00"));
+        Graph raw = parse(graphWithName(EMOJI));
+
+        assertEquals(raw.nodes.name(0), escaped.nodes.name(0));
+    }
+
+    @Test
+    void loneSurrogatesAreRejected() {
+        for (String name : new String[]{"\\ud83d", "\\ud83dx", "\\ud83d\\u0041", "\\ude00"}) {
+            IOException error = assertThrows(IOException.class, () -> parse(graphWithName(name)), name);
+            assertTrue(error.getMessage().startsWith("Invalid \\u escape"), error.getMessage());
+        }
+    }
+
+    @Test
+    void strictDecoderRejectsCesu8() {
+        // Sanity check of the assertion above: the two 3-byte halves are not valid UTF-8
+        byte[] cesu8 = {(byte) 0xED, (byte) 0xA0, (byte) 0xBD, (byte) 0xED, (byte) 0xB8, (byte) 0x80};
+        assertThrows(CharacterCodingException.class,
+                () -> StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(cesu8)));
+    }
+}
@@ -0,0 +1,45 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class MSTCacheTest {
+
+    private static Graph triangle(String a, String b, String c) {
+        Graph graph = new Graph();
+        graph.addEdge(graph.addNode(a), graph.addNode(b), 1);
+        graph.addEdge(graph.nodes.indexOf(b), graph.addNode(c), 2);
+        graph.addEdge(graph.nodes.indexOf(a), graph.nodes.indexOf(c), 3);
+        return graph;
+    }
+
+    @Test
+    void rebuiltResultCountsAsHit() {
+        MSTCache cache = new MSTCache(4);
+        Graph graph = triangle("a", "b", "c");
+        MSTCache.Key key = MSTCache.key(graph, "kruskal");
+        cache.put(key, KruskalAlgorithm.solve(graph, KruskalAlgorithm.Engine.CLASSIC));
+
+        MSTResult cached = cache.get(key, triangle("a", "b", "c"));
+        assertNotNull(cached);
+        assertEquals(3, cached.totalWeight);
+        assertEquals(1, cache.hits());
+        assertEquals(0, cache.misses());
+    }
+
+    @Test
+    void entryWhoseNamesDoNotMapBackCountsAsMiss() {
+        MSTCache cache = new MSTCache(4);
+        Graph graph = triangle("a", "b", "c");
+        MSTCache.Key key = MSTCache.key(graph, "kruskal");
+        cache.put(key, KruskalAlgorithm.solve(graph, KruskalAlgorithm.Engine.CLASSIC));
+
+        // Same key, other names: what a hash collision looks like to get()
+        assertNull(cache.get(key, triangle("x", "y", "z")));
+        assertEquals(0, cache.hits());
+        assertEquals(1, cache.misses());
+
+        assertNull(cache.get(MSTCache.key(triangle("x", "y", "z"), "prim"), graph));
+        assertEquals(0, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+}
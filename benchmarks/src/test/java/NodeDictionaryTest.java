@@ -0,0 +1,91 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class NodeDictionaryTest {
+
+    private static int add(NodeDictionary nodes, String name) {
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        return nodes.add(utf8, 0, utf8.length);
+    }
+
+    @Test
+    void olderGraphKeepsItsIndicesAfterANewerOneTakesOverTheTable() {
+        SymbolTable symbols = new SymbolTable();
+        NodeDictionary first = new NodeDictionary(symbols);
+        assertEquals(0, add(first, "alpha"));
+        assertEquals(1, add(first, "beta"));
+
+        NodeDictionary second = new NodeDictionary(symbols);
+        assertEquals(0, add(second, "beta"));
+        assertEquals(1, add(second, "gamma"));
+        assertEquals(0, add(second, "beta"));
+
+        // The first graph is no longer the table's current owner
+        assertEquals(1, add(first, "beta"));
+        assertEquals(2, add(first, "gamma"));
+        assertEquals(0, first.indexOf("alpha"));
+        assertEquals(2, first.indexOf("gamma"));
+
+        assertEquals(-1, second.indexOf("alpha"));
+        assertEquals(1, add(second, "gamma"));
+        assertEquals(2, add(second, "alpha"));
+        assertEquals(3, second.size());
+    }
+
+    @Test
+    void indexOfDuringReadingStaysInStepWithLaterNodes() {
+        NodeDictionary nodes = new NodeDictionary();
+        add(nodes, "a");
+        assertEquals(0, nodes.indexOf("a"));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + 1, add(nodes, "n" + i));
+        }
+        assertEquals(0, add(nodes, "a"));
+        assertEquals(42, nodes.indexOf("n41"));
+        assertEquals(-1, nodes.indexOf("missing"));
+    }
+
+    @Test
+    void namesSharingTheirFirstEightBytesStayDistinct() {
+        NodeDictionary nodes = new NodeDictionary();
+        String[] names = {"abcdefgh", "abcdefghi", "abcdefghj", "abcdefg", "abcd", "abcdéfgh", ""};
+        nodes.ensureCapacity(names.length);
+        for (int i = 0; i < names.length; i++) {
+            assertEquals(i, add(nodes, names[i]), names[i]);
+        }
+        for (int i = 0; i < names.length; i++) {
+            assertEquals(i, add(nodes, names[i]), names[i]);
+            assertEquals(i, nodes.indexOf(names[i]), names[i]);
+            assertEquals(names[i], nodes.name(i));
+        }
+    }
+
+    @Test
+    void presizedDictionaryMatchesAGrownOne() {
+        NodeDictionary presized = new NodeDictionary();
+        presized.ensureCapacity(50000);
+        NodeDictionary grown = new NodeDictionary();
+        for (int i = 0; i < 50000; i++) {
+            String name = "node-" + i;
+            assertEquals(add(grown, name), add(presized, name));
+        }
+        for (int i = 0; i < 50000; i += 997) {
+            String name = "node-" + i;
+            assertEquals(i, presized.indexOf(name));
+            assertEquals(name, presized.name(i));
+        }
+    }
+
+    @Test
+    void anonymousNodesAreNeverFound() {
+        NodeDictionary nodes = new NodeDictionary();
+        add(nodes, "a");
+        assertEquals(1, nodes.addAnonymous());
+        assertEquals(-1, nodes.indexOf("#1"));
+        assertEquals(2, add(nodes, "#1"));
+        assertEquals(2, nodes.indexOf("#1"));
+    }
+}
@@ -0,0 +1,233 @@
+import java.util.*;
+import java.io.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+// Solves the graphs of one file as a three-stage pipeline:
+//
+//   reader thread --(parsed queue)--> solver threads --(solved queue)--> writer (calling thread)
+//
+// All stages run concurrently over bounded queues. A graph holds an in-flight permit from
+// the moment it is parsed until its result has been handed to the sink, so at most
+// queueCapacity + threads graphs or results are on the heap at once, and the first results
+// reach the output while later graphs are still being parsed.
+// Results are delivered in the same order as the graphs appear in the file, which is also
+// the order the sequential processGraphsFromFile methods write them in, whatever the ids.
+public class BatchProcessor {
+    private final Function<Graph, MSTResult> solver;
+    private final int threads;
+    private final int queueCapacity;
+    private final boolean virtualThreads;
+
+    // Receives results in file order
+    public interface Sink {
+        void accept(MSTResult result) throws IOException;
+    }
+
+    public BatchProcessor(Function<Graph, MSTResult> solver) {
+        this(solver, Runtime.getRuntime().availableProcessors(), 0, false);
+    }
+
+    // queueCapacity is the number of parsed graphs waiting for a worker, 0 for twice the thread count.
+    // Virtual threads need Java 21; on older runtimes platform threads are used instead.
+    public BatchProcessor(Function<Graph, MSTResult> solver, int threads, int queueCapacity, boolean virtualThreads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one worker thread, got " + threads);
+        }
+        this.solver = solver;
+        this.threads = threads;
+        this.queueCapacity = queueCapacity > 0 ? queueCapacity : 2 * threads;
+        this.virtualThreads = virtualThreads;
+    }
+
+    // A graph travelling through the pipeline, or a control marker
+    private static class Task {
+        final int sequence;
+        final boolean last; // marks the end of the file; sequence is then the graph count
+        Graph graph;
+        MSTResult result;
+
+        Task(int sequence, Graph graph) {
+            this(sequence, graph, false);
+        }
+
+        private Task(int sequence, Graph graph, boolean last) {
+            this.sequence = sequence;
+            this.graph = graph;
+            this.last = last;
+        }
+    }
+
+    private static final Task END = new Task(-1, null);    // tells a solver thread to stop
+    private static final Task FAILED = new Task(-1, null); // wakes the writer after a failure
+
+    // Collects all results of a file in order
+    public List<MSTResult> process(String filename) throws IOException, InterruptedException {
+        List<MSTResult> results = new ArrayList<>();
+        process(filename, results::add);
+        return results;
+    }
+
+    // Streams the results of a file straight to a JSON output file
+    public int process(String inputFile, String outputFile) throws IOException, InterruptedException {
+        try (ResultWriter writer = new ResultWriter(outputFile)) {
+            return process(inputFile, writer::write);
+        }
+    }
+
+    // Runs the pipeline, handing results to the sink in file order; returns the number of graphs
+    public int process(String filename, Sink sink) throws IOException, InterruptedException {
+        Semaphore inFlight = new Semaphore(queueCapacity + threads);
+        BlockingQueue<Task> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Task> solved = new ArrayBlockingQueue<>(queueCapacity + threads + 1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> stages = new ArrayList<>();
+
+        // Stage 1: parse graphs; the last task carries the graph count
+        Thread reader = new Thread(() -> {
+            int count = 0;
+            try (GraphSource source = GraphSource.open(filename)) {
+                Graph graph;
+                while ((graph = source.next()) != null) {
+                    inFlight.acquire();
+                    parsed.put(new Task(count++, graph));
+                }
+                solved.put(new Task(count, null, true));
+                for (int i = 0; i < threads; i++) {
+                    parsed.put(END);
+                }
+            } catch (InterruptedException e) {
+                // the pipeline is shutting down
+            } catch (IOException | RuntimeException | Error e) {
+                fail(failure, solved, e);
+            }
+        }, "mst-reader");
+        reader.setDaemon(true);
+        stages.add(reader);
+
+        // Stage 2: solve
+        ThreadFactory factory = threadFactory();
+        for (int i = 0; i < threads; i++) {
+            stages.add(factory.newThread(() -> {
+                try {
+                    Task task;
+                    while ((task = parsed.take()) != END) {
+                        task.result = solver.apply(task.graph);
+                        if (task.result == null) {
+                            throw new IllegalStateException("Solver returned no result for graph " + task.graph.id);
+                        }
+                        task.graph = null;
+                        solved.put(task);
+                    }
+                } catch (InterruptedException e) {
+                    // the pipeline is shutting down
+                } catch (RuntimeException | Error e) {
+                    fail(failure, solved, e);
+                }
+            }));
+        }
+        for (Thread stage : stages) {
+            stage.start();
+        }
+
+        // Stage 3: write in file order, holding back results that finish early
+        Map<Integer, MSTResult> pending = new HashMap<>();
+        int next = 0;
+        int total = -1;
+        try {
+            while (total < 0 || next < total) {
+                Task task = solved.take();
+                if (failure.get() != null) {
+                    break;
+                }
+                if (task.last) {
+                    total = task.sequence;
+                    continue;
+                }
+                pending.put(task.sequence, task.result);
+                MSTResult result;
+                while ((result = pending.remove(next)) != null) {
+                    sink.accept(result);
+                    next++;
+                    inFlight.release();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            if (failure.get() != null || next != total) {
+                for (Thread stage : stages) {
+                    stage.interrupt();
+                }
+            }
+            for (Thread stage : stages) {
+                stage.join();
+            }
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        }
+        if (error != null) {
+            throw new IOException("Solving a graph failed: " + error, error);
+        }
+        return next;
+    }
+
+    private static void fail(AtomicReference<Throwable> failure, BlockingQueue<Task> solved, Throwable e) {
+        failure.compareAndSet(null, e);
+        // If the queue is full the writer is not blocked and will see the failure on its next take
+        solved.offer(FAILED);
+    }
+
+    private ThreadFactory threadFactory() {
+        if (virtualThreads) {
+            try {
+                // Thread.ofVirtual().factory(), looked up reflectively so the code still builds on Java 17
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                System.err.println("Virtual threads are not available on this JVM, using platform threads");
+            }
+        }
+        AtomicInteger next = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, "mst-worker-" + next.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public static void main(String[] args) throws Exception {
+        String input = args.length > 0 ? args[0] : "ass_3_input.json";
+        String output = args.length > 1 ? args[1] : "ass_3_output.json";
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        boolean virtual = args.length > 3 && args[3].equals("--virtual");
+
+        System.out.println("=== Batch MST processing: " + input + " on " + threads + " threads ===\n");
+
+        MSTCache cache = MSTCache.shared();
+        // Each worker thread reuses its own solver's buffers from graph to graph
+        Function<Graph, MSTResult> kruskal = graph -> MSTSolver.local().solveKruskal(graph, KruskalAlgorithm.Engine.CLASSIC);
+        BatchProcessor batch = new BatchProcessor(
+                cache != null ? graph -> cache.solve(graph, "kruskal-classic", kruskal) : kruskal, threads, 0, virtual);
+
+        long start = System.nanoTime();
+        int graphs;
+        try (ResultWriter writer = new ResultWriter(output)) {
+            graphs = batch.process(input, result -> {
+                if (Log.isEnabled(Log.Level.INFO)) {
+                    Log.info("Graph " + result.graphId + ": MST weight " + result.totalWeight);
+                }
+                writer.write(result);
+            });
+        }
+        long elapsed = (System.nanoTime() - start) / 1000000;
+        Log.flush();
+
+        System.out.println("✓ " + graphs + " graphs solved in " + elapsed + " ms, results written to " + output);
+    }
+}
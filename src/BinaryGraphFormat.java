@@ -0,0 +1,139 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+// Compact binary graph format, so repeated runs can skip JSON parsing.
+// All values are little-endian ints:
+//
+//   header:  magic "MSTG", version, flags, graph count
+//   graph:   id, node count, edge count, then the node-name dictionary
+//            (byte length + UTF-8 bytes per node), then packed
+//            (src, dst, weight) edge triples using dictionary indices
+//
+// With FLAG_SORTED_BY_WEIGHT every graph's edges are stored in stable weight order.
+public class BinaryGraphFormat {
+    static final int MAGIC = 0x4753544D; // "MSTG" read as a little-endian int
+    static final int VERSION = 1;
+    static final int FLAG_SORTED_BY_WEIGHT = 1;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final int HEADER_SIZE = 16;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    // Converts a {"graphs": [...]} JSON file to the binary format, returning the number of graphs.
+    // The file is written under a temporary name and moved into place when complete, so an
+    // interrupted conversion never leaves a truncated file behind.
+    public static int convert(String jsonFile, String binaryFile, boolean sortByWeight) throws IOException {
+        Path target = Paths.get(binaryFile).toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            int graphCount = write(jsonFile, temp, sortByWeight);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return graphCount;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static int write(String jsonFile, Path binaryFile, boolean sortByWeight) throws IOException {
+        int graphCount = 0;
+        try (GraphSource source = GraphSource.open(jsonFile);
+             FileChannel out = FileChannel.open(binaryFile,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(BYTE_ORDER);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(sortByWeight ? FLAG_SORTED_BY_WEIGHT : 0).putInt(0);
+
+            Graph graph;
+            while ((graph = source.next()) != null) {
+                if (sortByWeight) {
+                    graph.edges.sortByWeight();
+                }
+                ensure(out, buffer, 12);
+                EdgeList edges = graph.edges;
+                NodeDictionary nodes = graph.nodes;
+                buffer.putInt(graph.id).putInt(nodes.size()).putInt(edges.size());
+
+                // The dictionary already holds the UTF-8 bytes of every name
+                byte[] names = nodes.utf8Bytes();
+                for (int i = 0; i < nodes.size(); i++) {
+                    int start = nodes.nameStart(i);
+                    int length = nodes.nameEnd(i) - start;
+                    ensure(out, buffer, 4 + length);
+                    buffer.putInt(length).put(names, start, length);
+                }
+                for (int e = 0; e < edges.size(); e++) {
+                    ensure(out, buffer, 12);
+                    buffer.putInt(edges.src[e]).putInt(edges.dest[e]).putInt(edges.weight[e]);
+                }
+                graphCount++;
+            }
+            flush(out, buffer);
+
+            // Patch the graph count now that it is known
+            buffer.putInt(graphCount).flip();
+            out.write(buffer, 12);
+        }
+        return graphCount;
+    }
+
+    // Returns the binary twin of a JSON file with edges in input order, converting it first
+    // if it is missing, stale or was written with a different edge order
+    public static String cachedBinary(String jsonFile) throws IOException {
+        return cachedBinary(jsonFile, false);
+    }
+
+    public static String cachedBinary(String jsonFile, boolean sortByWeight) throws IOException {
+        Path json = Paths.get(jsonFile);
+        Path binary = Paths.get(jsonFile + (sortByWeight ? ".sorted.mstg" : ".mstg"));
+        if (!Files.exists(binary)
+                || Files.getLastModifiedTime(binary).compareTo(Files.getLastModifiedTime(json)) < 0
+                || flags(binary) != (sortByWeight ? FLAG_SORTED_BY_WEIGHT : 0)) {
+            convert(jsonFile, binary.toString(), sortByWeight);
+        }
+        return binary.toString();
+    }
+
+    // Flags of a binary file, or -1 if it does not start with a valid header
+    private static int flags(Path binary) throws IOException {
+        try (FileChannel in = FileChannel.open(binary, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(BYTE_ORDER);
+            while (header.hasRemaining() && in.read(header) >= 0) {
+                // read the whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                return -1;
+            }
+            return header.getInt();
+        }
+    }
+
+    private static void ensure(FileChannel out, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(out, buffer);
+            if (buffer.capacity() < bytes) {
+                throw new IOException("Record of " + bytes + " bytes does not fit the write buffer");
+            }
+        }
+    }
+
+    private static void flush(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: BinaryGraphFormat <input.json> <output.mstg> [--unsorted]");
+            return;
+        }
+        boolean sort = !(args.length > 2 && args[2].equals("--unsorted"));
+        int graphs = convert(args[0], args[1], sort);
+        System.out.println("✓ Converted " + graphs + " graphs to " + args[1]);
+    }
+}
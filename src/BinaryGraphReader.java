@@ -0,0 +1,128 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+// Loader for the binary format. The file is memory-mapped in windows and each
+// graph is read straight into Graph's primitive arrays; names are interned once per file.
+class BinaryGraphReader implements GraphSource {
+    private static final long WINDOW_SIZE = 1L << 28;
+
+    private final FileChannel file;
+    private final long fileSize;
+    private final boolean sortedByWeight;
+    private int graphsLeft;
+
+    // Node names are interned once for the whole file, up to SymbolTable.MAX_SHARED_SYMBOLS
+    private SymbolTable symbols = new SymbolTable();
+    private byte[] name = new byte[64];
+
+    private ByteBuffer window;
+    private long windowStart, windowEnd;
+    private long position;
+
+    public BinaryGraphReader(String filename) throws IOException {
+        file = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+        fileSize = file.size();
+        try {
+            ByteBuffer header = at(0, BinaryGraphFormat.HEADER_SIZE);
+            if (header.getInt() != BinaryGraphFormat.MAGIC) {
+                throw new IOException("Not a binary graph file: " + filename);
+            }
+            int version = header.getInt();
+            if (version != BinaryGraphFormat.VERSION) {
+                throw new IOException("Unsupported binary graph version " + version);
+            }
+            sortedByWeight = (header.getInt() & BinaryGraphFormat.FLAG_SORTED_BY_WEIGHT) != 0;
+            graphsLeft = header.getInt();
+            position = BinaryGraphFormat.HEADER_SIZE;
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public Graph next() throws IOException {
+        return next(null);
+    }
+
+    @Override
+    public Graph next(EdgeConsumer edges) throws IOException {
+        if (graphsLeft == 0) {
+            return null;
+        }
+        graphsLeft--;
+
+        ByteBuffer buffer = at(position, 12);
+        if (symbols.size() >= SymbolTable.MAX_SHARED_SYMBOLS) {
+            symbols = new SymbolTable();
+        }
+        Graph graph = new Graph(symbols);
+        MSTMetrics.beginParse(graph);
+        graph.id = buffer.getInt();
+        int nodeCount = buffer.getInt();
+        int edgeCount = buffer.getInt();
+        position += 12;
+
+        // Each node takes at least its 4-byte length, which bounds what a corrupt count can reserve
+        graph.nodes.ensureCapacity((int) Math.min(Math.max(nodeCount, 0), (fileSize - position) / 4));
+        for (int i = 0; i < nodeCount; i++) {
+            int length = at(position, 4).getInt();
+            if (length > name.length) {
+                name = new byte[Math.max(length, name.length * 2)];
+            }
+            at(position + 4, length).get(name, 0, length);
+            MSTMetrics.begin(graph.metrics, MSTMetrics.Phase.INDEX);
+            graph.nodes.add(name, 0, length);
+            MSTMetrics.end(graph.metrics, MSTMetrics.Phase.INDEX);
+            position += 4 + length;
+        }
+
+        int[] src = edges == null ? new int[edgeCount] : null;
+        int[] dest = edges == null ? new int[edgeCount] : null;
+        int[] weight = edges == null ? new int[edgeCount] : null;
+        int done = 0;
+        while (done < edgeCount) {
+            int chunk = (int) Math.min(edgeCount - done, WINDOW_SIZE / 12);
+            buffer = at(position, chunk * 12);
+            for (int e = done; e < done + chunk; e++) {
+                if (edges != null) {
+                    edges.edge(buffer.getInt(), buffer.getInt(), buffer.getInt());
+                } else {
+                    src[e] = buffer.getInt();
+                    dest[e] = buffer.getInt();
+                    weight[e] = buffer.getInt();
+                }
+            }
+            position += chunk * 12L;
+            done += chunk;
+        }
+        if (edges == null) {
+            graph.edges = new EdgeList(src, dest, weight, edgeCount);
+        }
+        graph.edges.setSortedByWeight(sortedByWeight);
+        MSTMetrics.endParse(graph);
+        return graph;
+    }
+
+    // Returns the mapped window positioned at offset with at least length readable bytes
+    private ByteBuffer at(long offset, int length) throws IOException {
+        if (offset + length > fileSize) {
+            throw new IOException("Truncated binary graph file at byte " + offset);
+        }
+        if (window == null || offset < windowStart || offset + length > windowEnd) {
+            long size = Math.min(Math.max(WINDOW_SIZE, length), fileSize - offset);
+            window = file.map(FileChannel.MapMode.READ_ONLY, offset, size).order(BinaryGraphFormat.BYTE_ORDER);
+            windowStart = offset;
+            windowEnd = offset + size;
+        }
+        window.position((int) (offset - windowStart));
+        return window;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -0,0 +1,193 @@
+import java.util.*;
+import java.io.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+
+public class BoruvkaAlgorithm {
+    // Below this many live edges a round runs sequentially; forking would cost more than it saves
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+    private static final long NO_EDGE = Long.MAX_VALUE;
+
+    // Function to find Minimum Spanning Tree using Borůvka's algorithm
+    public static List<Edge> boruvkaMST(Graph graph) {
+        return boruvkaMST(graph.edges, graph.nodes);
+    }
+
+    // Runs the parallel rounds on the given pool instead of the common pool
+    public static List<Edge> boruvkaMST(Graph graph, ForkJoinPool pool) {
+        return pool.submit(() -> boruvkaMST(graph)).join();
+    }
+
+    // Each round every component picks its cheapest outgoing edge in parallel, then the
+    // picked edges are contracted through a concurrent union-find. Ties are broken by
+    // edge index, so the picks never form a cycle.
+    public static List<Edge> boruvkaMST(EdgeList edges, NodeDictionary nodes) {
+        return boruvkaTree(edges, nodes.size()).toEdges(nodes);
+    }
+
+    // The tree by vertex indices
+    private static EdgeList boruvkaTree(EdgeList edges, int vertices) {
+        int[] src = edges.src;
+        int[] dest = edges.dest;
+        int[] weight = edges.weight;
+
+        int[] component = new int[vertices];
+        for (int v = 0; v < vertices; v++) {
+            component[v] = v;
+        }
+        ConcurrentUnionFind uf = new ConcurrentUnionFind(vertices);
+        AtomicLongArray cheapest = new AtomicLongArray(vertices);
+        int[] live = IntStream.range(0, edges.size()).toArray();
+
+        EdgeList tree = new EdgeList(Math.max(1, vertices - 1));
+        int components = vertices;
+
+        while (live.length > 0 && components > 1) {
+            boolean parallel = live.length >= PARALLEL_THRESHOLD;
+
+            for (int v = 0; v < vertices; v++) {
+                cheapest.set(v, NO_EDGE);
+            }
+
+            // Every live edge bids for both components it touches; a bid is (weight, edge index)
+            stream(live, parallel).forEach(e -> {
+                long bid = ((long) weight[e] << 32) | e;
+                lower(cheapest, component[src[e]], bid);
+                lower(cheapest, component[dest[e]], bid);
+            });
+
+            // Contract along the winning edges in parallel. Two components may pick the
+            // same edge, but only one union() call for it can succeed, so it is kept once.
+            int[] merged = stream(IntStream.range(0, vertices), parallel)
+                    .filter(c -> cheapest.get(c) != NO_EDGE)
+                    .map(c -> (int) cheapest.get(c))
+                    .filter(e -> uf.union(src[e], dest[e]))
+                    .toArray();
+            for (int e : merged) {
+                tree.add(src[e], dest[e], weight[e]);
+            }
+            components -= merged.length;
+
+            stream(IntStream.range(0, vertices), parallel).forEach(v -> component[v] = uf.find(v));
+
+            // Edges inside one component can never be picked again
+            live = stream(live, parallel)
+                    .filter(e -> component[src[e]] != component[dest[e]])
+                    .toArray();
+        }
+
+        return tree;
+    }
+
+    private static IntStream stream(int[] values, boolean parallel) {
+        return stream(Arrays.stream(values), parallel);
+    }
+
+    private static IntStream stream(IntStream stream, boolean parallel) {
+        return parallel ? stream.parallel() : stream;
+    }
+
+    // Atomically lowers slot to bid if bid is smaller
+    private static void lower(AtomicLongArray cheapest, int slot, long bid) {
+        long current;
+        while (bid < (current = cheapest.get(slot))) {
+            if (cheapest.compareAndSet(slot, current, bid)) {
+                return;
+            }
+        }
+    }
+
+    // Computes the MST of one graph and wraps it in a result
+    public static MSTResult solve(Graph graph) {
+        MSTMetrics metrics = MSTMetrics.enter(graph.metrics);
+        try {
+            MSTMetrics.begin(metrics, MSTMetrics.Phase.SOLVE);
+            EdgeList tree = boruvkaTree(graph.edges, graph.nodeCount());
+            MSTMetrics.end(metrics, MSTMetrics.Phase.SOLVE);
+            List<Edge> mst = tree.toEdges(graph.nodes);
+            MSTResult result = new MSTResult(graph.id, KruskalAlgorithm.getMSTWeight(mst), mst);
+            result.strategy = "boruvka";
+            result.nodes = graph.nodes;
+            result.countComponents(graph.nodeCount());
+            result.metrics = metrics;
+            if (metrics != null) {
+                metrics.unionFindUnions += mst.size();
+            }
+            return result;
+        } finally {
+            MSTMetrics.exit(metrics);
+        }
+    }
+
+    public static List<MSTResult> processGraphsFromFile(String filename) {
+        List<MSTResult> results = new ArrayList<>();
+
+        try (GraphSource reader = GraphSource.open(filename)) {
+            Graph graph;
+            while ((graph = reader.next()) != null) {
+                if (Log.isEnabled(Log.Level.INFO)) {
+                    Log.info("Processing Graph " + graph.id + " with " + graph.nodeCount() + " nodes and " + graph.edges.size() + " edges");
+                }
+
+                results.add(solve(graph));
+            }
+
+        } catch (Exception e) {
+            System.err.println("Error processing file: " + e.getMessage());
+            e.printStackTrace();
+        }
+        Log.flush();
+
+        return results;
+    }
+
+    // Checks Borůvka against Kruskal on every graph of a file; true if all weights and sizes match
+    public static boolean verifyAgainstKruskal(String filename) {
+        boolean allMatch = true;
+
+        try (GraphSource reader = GraphSource.open(filename)) {
+            Graph graph;
+            while ((graph = reader.next()) != null) {
+                List<Edge> boruvka = boruvkaMST(graph);
+                List<Edge> kruskal = KruskalAlgorithm.kruskalMST(graph);
+
+                int boruvkaWeight = KruskalAlgorithm.getMSTWeight(boruvka);
+                int kruskalWeight = KruskalAlgorithm.getMSTWeight(kruskal);
+                boolean match = boruvkaWeight == kruskalWeight && boruvka.size() == kruskal.size();
+                allMatch &= match;
+
+                System.out.printf("  Graph %d: Borůvka=%d, Kruskal=%d %s\n",
+                        graph.id, boruvkaWeight, kruskalWeight, match ? "✓" : "✗ MISMATCH!");
+            }
+
+        } catch (IOException e) {
+            System.err.println("Error processing file: " + e.getMessage());
+            return false;
+        }
+
+        return allMatch;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== Borůvka's Algorithm vs Kruskal ===\n");
+
+        String[] files = args.length > 0 ? args : new String[]{
+                "ass_3_input.json",
+                "test_small_5graphs.json",
+                "test_medium_10graphs.json",
+                "test_large_10graphs.json",
+                "test_xlarge_5graphs.json"
+        };
+
+        boolean allMatch = true;
+        for (String file : files) {
+            System.out.println(file + ":");
+            allMatch &= verifyAgainstKruskal(file);
+        }
+
+        System.out.println(allMatch ? "\n✓ Borůvka matches Kruskal on every graph."
+                : "\n✗ Borůvka and Kruskal disagree on some graphs!");
+    }
+}
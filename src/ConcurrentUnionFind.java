@@ -0,0 +1,74 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Lock-free Union-Find that many threads may use at once, e.g. by a parallel MST engine.
+// Roots are linked with a single CAS, and find() does path halving with CAS, which only
+// ever shortens paths, so a lost race costs a retry or a missed shortcut and never corrupts the forest.
+class ConcurrentUnionFind {
+    private final AtomicIntegerArray parent;
+
+    public ConcurrentUnionFind(int size) {
+        parent = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    public int size() {
+        return parent.length();
+    }
+
+    public int find(int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) {
+                return x;
+            }
+            int grandparent = parent.get(p);
+            if (p != grandparent) {
+                parent.compareAndSet(x, p, grandparent);
+            }
+            x = grandparent;
+        }
+    }
+
+    // Returns true if this call merged two different sets
+    public boolean union(int x, int y) {
+        while (true) {
+            x = find(x);
+            y = find(y);
+            if (x == y) {
+                return false;
+            }
+            // Link the lower-priority root under the other; a fixed pseudo-random
+            // priority keeps trees shallow without a separate rank array
+            if (priority(x) > priority(y) || (priority(x) == priority(y) && x > y)) {
+                int t = x;
+                x = y;
+                y = t;
+            }
+            if (parent.compareAndSet(x, x, y)) {
+                return true;
+            }
+            // x stopped being a root in the meantime; retry from the new roots
+        }
+    }
+
+    public boolean sameSet(int x, int y) {
+        while (true) {
+            x = find(x);
+            y = find(y);
+            if (x == y) {
+                return true;
+            }
+            // Only a definite answer if x is still a root after y's root was read
+            if (parent.get(x) == x) {
+                return false;
+            }
+        }
+    }
+
+    private static int priority(int x) {
+        x *= 0x9E3779B9;
+        return x ^ (x >>> 15);
+    }
+}
@@ -0,0 +1,65 @@
+import java.util.Arrays;
+
+// Undirected graph in compressed sparse row form: the neighbors of vertex u are
+// targets[offsets[u] .. offsets[u + 1]) with the matching weights, so adjacency
+// is three flat arrays instead of a list of small objects per vertex.
+// A graph can be rebuilt from another edge list, reusing its arrays when they are large enough.
+class CsrGraph {
+    public int vertices;
+    public int[] offsets = new int[1];
+    public int[] targets = new int[0];
+    public int[] weights = new int[0];
+    private int[] next = new int[0];
+
+    CsrGraph() {
+    }
+
+    public static CsrGraph fromEdges(EdgeList edges, int vertices) {
+        CsrGraph graph = new CsrGraph();
+        graph.rebuild(edges, vertices);
+        return graph;
+    }
+
+    // Builds the adjacency in two passes over the edge list: count degrees, then place
+    public void rebuild(EdgeList edges, int vertices) {
+        int m = edges.size();
+        int[] src = edges.src;
+        int[] dest = edges.dest;
+        int[] weight = edges.weight;
+
+        if (offsets.length < vertices + 1) {
+            offsets = new int[vertices + 1];
+            next = new int[vertices];
+        } else {
+            Arrays.fill(offsets, 0, vertices + 1, 0);
+        }
+        if (targets.length < 2 * m) {
+            targets = new int[2 * m];
+            weights = new int[2 * m];
+        }
+        this.vertices = vertices;
+
+        for (int e = 0; e < m; e++) {
+            offsets[src[e] + 1]++;
+            offsets[dest[e] + 1]++;
+        }
+        for (int v = 0; v < vertices; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        System.arraycopy(offsets, 0, next, 0, vertices);
+        for (int e = 0; e < m; e++) {
+            int u = src[e], v = dest[e];
+            int i = next[u]++;
+            targets[i] = v;
+            weights[i] = weight[e];
+            i = next[v]++;
+            targets[i] = u;
+            weights[i] = weight[e];
+        }
+    }
+
+    public int degree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+}
@@ -14,9 +14,16 @@ class Edge implements Comparable<Edge> {
         this.weight = weight;
     }
 
+    // Edge between two dictionary nodes, keeping both the indices and the names
+    public Edge(int src, int dest, int weight, NodeDictionary nodes) {
+        this(nodes.name(src), nodes.name(dest), weight);
+        this.src = src;
+        this.dest = dest;
+    }
+
     @Override
     public int compareTo(Edge other) {
-        return this.weight - other.weight;
+        return Integer.compare(this.weight, other.weight);
     }
 
     @Override
@@ -0,0 +1,103 @@
+import java.util.Arrays;
+
+// Set of undirected vertex pairs, used to reject duplicate edges while generating graphs.
+// A pair u-v is identified by its index in the triangular enumeration of all pairs, so
+// u-v and v-u are the same key. When the pair space is small or densely used the set is
+// a bitmap over all pairs; otherwise it is an open-addressing table of those indices.
+// Neither form allocates anything per edge.
+class EdgeKeySet {
+    private static final long EMPTY = -1;
+    private static final int MIN_BITMAP_BYTES = 1 << 23;
+
+    private final long[] bits;
+    private long[] keys;
+    private int mask;
+    private long size;
+
+    // expectedPairs is how many pairs will be added, used to pick and size the representation
+    public EdgeKeySet(int vertices, long expectedPairs) {
+        long pairs = (long) vertices * (vertices - 1) / 2;
+        long bitmapBytes = pairs / 8;
+        if (bitmapBytes <= Math.max(MIN_BITMAP_BYTES, 16 * expectedPairs) && (pairs + 63) >>> 6 < Integer.MAX_VALUE - 8) {
+            bits = new long[(int) ((pairs + 63) >>> 6)];
+        } else {
+            bits = null;
+            int capacity = Integer.highestOneBit((int) Math.min(1 << 30, Math.max(16, expectedPairs * 2)) - 1) << 1;
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            mask = capacity - 1;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    // Adds the pair; false if it was already present
+    public boolean add(int u, int v) {
+        long key = key(u, v);
+        if (bits != null) {
+            int word = (int) (key >>> 6);
+            long bit = 1L << key;
+            if ((bits[word] & bit) != 0) {
+                return false;
+            }
+            bits[word] |= bit;
+            size++;
+            return true;
+        }
+
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+        return true;
+    }
+
+    public boolean contains(int u, int v) {
+        long key = key(u, v);
+        if (bits != null) {
+            return (bits[(int) (key >>> 6)] & (1L << key)) != 0;
+        }
+        for (int slot = slot(key); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long key(int u, int v) {
+        int low = Math.min(u, v);
+        int high = Math.max(u, v);
+        return (long) high * (high - 1) / 2 + low;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] old = keys;
+        keys = new long[old.length * 2];
+        Arrays.fill(keys, EMPTY);
+        mask = keys.length - 1;
+        for (long key : old) {
+            if (key != EMPTY) {
+                int slot = slot(key);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+}
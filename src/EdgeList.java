@@ -0,0 +1,207 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Edge list stored as parallel primitive arrays (struct of arrays), 12 bytes per edge
+// instead of one Edge object per edge
+class EdgeList {
+    // Weight ranges up to this size (or up to the edge count) are counting-sorted
+    private static final int COUNTING_SORT_MAX_RANGE = 1 << 16;
+
+    public int[] src;
+    public int[] dest;
+    public int[] weight;
+    private int size;
+    private boolean sortedByWeight; // edges are in non-decreasing weight order
+
+    public EdgeList() {
+        this(16);
+    }
+
+    public EdgeList(int capacity) {
+        capacity = Math.max(capacity, 1);
+        src = new int[capacity];
+        dest = new int[capacity];
+        weight = new int[capacity];
+    }
+
+    // Wraps existing arrays holding size edges
+    public EdgeList(int[] src, int[] dest, int[] weight, int size) {
+        this.src = src;
+        this.dest = dest;
+        this.weight = weight;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return src.length;
+    }
+
+    // Makes room for capacity edges, keeping the current ones
+    public void ensureCapacity(int capacity) {
+        if (src.length < capacity) {
+            src = Arrays.copyOf(src, capacity);
+            dest = Arrays.copyOf(dest, capacity);
+            weight = Arrays.copyOf(weight, capacity);
+        }
+    }
+
+    public void add(int from, int to, int w) {
+        if (size == src.length) {
+            int capacity = Math.max(16, size * 2); // wrapped or adopted arrays may be empty
+            src = Arrays.copyOf(src, capacity);
+            dest = Arrays.copyOf(dest, capacity);
+            weight = Arrays.copyOf(weight, capacity);
+        }
+        src[size] = from;
+        dest[size] = to;
+        weight[size] = w;
+        size++;
+        sortedByWeight = false;
+    }
+
+    // The edges as Edge objects named from the dictionary, timed as the NAMES phase
+    List<Edge> toEdges(NodeDictionary nodes) {
+        MSTMetrics metrics = MSTMetrics.current();
+        MSTMetrics.begin(metrics, MSTMetrics.Phase.NAMES);
+        List<Edge> edges = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            edges.add(new Edge(src[i], dest[i], weight[i], nodes));
+        }
+        MSTMetrics.end(metrics, MSTMetrics.Phase.NAMES);
+        return edges;
+    }
+
+    // Removes all edges, keeping the arrays for reuse
+    public void clear() {
+        size = 0;
+        sortedByWeight = false;
+    }
+
+    public boolean isSortedByWeight() {
+        return sortedByWeight;
+    }
+
+    // Marks edges that are known to be in weight order already, e.g. pre-sorted binary input
+    public void setSortedByWeight(boolean sorted) {
+        sortedByWeight = sorted;
+    }
+
+    // Stable sort of the edges by weight; equal weights keep their input order.
+    // Small integer weight ranges use a counting sort, wide ranges a comparison sort.
+    public void sortByWeight() {
+        sortByWeight(null);
+    }
+
+    // Same sort taking its temporary arrays from buffers and copying the result back,
+    // so repeated sorts allocate nothing once the buffers are large enough
+    void sortByWeight(SortBuffers buffers) {
+        if (sortedByWeight || size < 2) {
+            sortedByWeight = true; // nothing to move; keep the arrays, whatever their capacity
+            return;
+        }
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (int e = 0; e < size; e++) {
+            min = Math.min(min, weight[e]);
+            max = Math.max(max, weight[e]);
+        }
+        SortBuffers scratch = buffers != null ? buffers : new SortBuffers();
+        scratch.ensureEdges(size);
+        long range = (long) max - min + 1;
+        if (size > 0 && range <= Math.max(COUNTING_SORT_MAX_RANGE, size)) {
+            countingSort(min, (int) range, scratch);
+        } else {
+            comparisonSort(scratch);
+        }
+        if (buffers != null) {
+            System.arraycopy(scratch.src, 0, src, 0, size);
+            System.arraycopy(scratch.dest, 0, dest, 0, size);
+            System.arraycopy(scratch.weight, 0, weight, 0, size);
+        } else {
+            // Fresh arrays: take them over instead of copying
+            src = scratch.src;
+            dest = scratch.dest;
+            weight = scratch.weight;
+        }
+        sortedByWeight = true;
+    }
+
+    // O(E + range) sort for bounded weights
+    private void countingSort(int min, int range, SortBuffers scratch) {
+        int[] start = scratch.counts(range + 1);
+        for (int e = 0; e < size; e++) {
+            start[weight[e] - min + 1]++;
+        }
+        for (int w = 0; w < range; w++) {
+            start[w + 1] += start[w];
+        }
+
+        int[] sortedSrc = scratch.src;
+        int[] sortedDest = scratch.dest;
+        int[] sortedWeight = scratch.weight;
+        for (int e = 0; e < size; e++) {
+            int i = start[weight[e] - min]++;
+            sortedSrc[i] = src[e];
+            sortedDest[i] = dest[e];
+            sortedWeight[i] = weight[e];
+        }
+    }
+
+    private void comparisonSort(SortBuffers scratch) {
+        // Weight in the high half, original position in the low half
+        long[] keys = scratch.keys(size);
+        for (int e = 0; e < size; e++) {
+            keys[e] = ((long) weight[e] << 32) | e;
+        }
+        Arrays.sort(keys, 0, size);
+
+        int[] sortedSrc = scratch.src;
+        int[] sortedDest = scratch.dest;
+        int[] sortedWeight = scratch.weight;
+        for (int i = 0; i < size; i++) {
+            int e = (int) keys[i];
+            sortedSrc[i] = src[e];
+            sortedDest[i] = dest[e];
+            sortedWeight[i] = weight[e];
+        }
+    }
+
+    // Temporary arrays for sortByWeight, grown on demand and kept between sorts
+    static class SortBuffers {
+        int[] src = new int[0];
+        int[] dest = new int[0];
+        int[] weight = new int[0];
+        private int[] counts = new int[0];
+        private long[] keys = new long[0];
+
+        void ensureEdges(int size) {
+            if (src.length < size) {
+                int capacity = Math.max(size, src.length + (src.length >> 1));
+                src = new int[capacity];
+                dest = new int[capacity];
+                weight = new int[capacity];
+            }
+        }
+
+        // Zeroed counters
+        int[] counts(int length) {
+            if (counts.length < length) {
+                counts = new int[length];
+            } else {
+                Arrays.fill(counts, 0, length, 0);
+            }
+            return counts;
+        }
+
+        long[] keys(int size) {
+            if (keys.length < size) {
+                keys = new long[Math.max(size, keys.length + (keys.length >> 1))];
+            }
+            return keys;
+        }
+    }
+}
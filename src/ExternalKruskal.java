@@ -0,0 +1,282 @@
+import java.util.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+// Out-of-core Kruskal for graphs whose edges do not fit in memory.
+//
+// Edges are streamed from the reader into a buffer sized by the memory budget. Whenever
+// the buffer fills it is sorted by weight and spilled to a temporary run file. The runs
+// are then k-way merged through a heap of run heads, and the merged stream goes straight
+// into the union-find, stopping as soon as V - 1 edges are accepted. Apart from the edge
+// buffer, only O(V) state stays resident: the node dictionary, the union-find and the tree.
+// A graph that fits the budget is solved in memory without touching the disk.
+//
+// Not thread-safe; use one instance per thread.
+public class ExternalKruskal {
+    public static final long DEFAULT_MEMORY_BUDGET = 256L << 20;
+
+    // Buffered edge (12 bytes) plus the copies and sort keys made while sorting it
+    private static final int BYTES_PER_BUFFERED_EDGE = 32;
+    private static final int MIN_RUN_EDGES = 1 << 10;
+    private static final int EDGE_BYTES = 12;
+    private static final int MIN_IO_BUFFER = 1 << 16;
+
+    private final long memoryBudget;
+    private final Path tempDir;
+
+    // Statistics of the last graph solved
+    private int runs;
+    private long edgesRead;
+    private long edgesMerged;
+
+    public ExternalKruskal() {
+        this(DEFAULT_MEMORY_BUDGET, Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    // memoryBudget is in bytes; run files are created in tempDir and deleted afterwards
+    public ExternalKruskal(long memoryBudget, Path tempDir) {
+        if (memoryBudget < (long) MIN_RUN_EDGES * BYTES_PER_BUFFERED_EDGE) {
+            throw new IllegalArgumentException("Memory budget of " + memoryBudget + " bytes is too small");
+        }
+        this.memoryBudget = memoryBudget;
+        this.tempDir = tempDir;
+    }
+
+    public int runs() {
+        return runs;
+    }
+
+    public long edgesRead() {
+        return edgesRead;
+    }
+
+    // Edges taken from the merged runs before the tree was complete
+    public long edgesMerged() {
+        return edgesMerged;
+    }
+
+    // Streams the results of a file to the sink; returns the number of graphs
+    public int process(String filename, BatchProcessor.Sink sink) throws IOException {
+        int count = 0;
+        try (GraphSource source = GraphSource.open(filename)) {
+            MSTResult result;
+            while ((result = solveNext(source)) != null) {
+                sink.accept(result);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int process(String inputFile, String outputFile) throws IOException {
+        try (ResultWriter writer = new ResultWriter(outputFile)) {
+            return process(inputFile, writer::write);
+        }
+    }
+
+    // Reads the next graph of the source and solves it, or returns null at the end
+    public MSTResult solveNext(GraphSource source) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try {
+            int runEdges = (int) Math.min(Integer.MAX_VALUE - 8, memoryBudget / BYTES_PER_BUFFERED_EDGE);
+            EdgeList buffer = new EdgeList(Math.min(runEdges, MIN_RUN_EDGES));
+            edgesRead = 0;
+
+            Graph graph = source.next((from, to, weight) -> {
+                if (buffer.size() == buffer.capacity()) {
+                    if (buffer.size() == runEdges) {
+                        files.add(spill(buffer));
+                    } else {
+                        // Grow by doubling, but never past the budget
+                        buffer.ensureCapacity((int) Math.min(runEdges, 2L * buffer.size()));
+                    }
+                }
+                buffer.add(from, to, weight);
+                edgesRead++;
+            });
+            if (graph == null) {
+                return null;
+            }
+            MSTMetrics metrics = MSTMetrics.enter(graph.metrics);
+            if (metrics != null) {
+                metrics.edges = (int) Math.min(Integer.MAX_VALUE, edgesRead);
+            }
+
+            List<Edge> mst;
+            try {
+                if (files.isEmpty()) {
+                    runs = 0;
+                    edgesMerged = 0;
+                    mst = KruskalAlgorithm.kruskalMST(buffer, graph.nodes);
+                } else {
+                    if (buffer.size() > 0) {
+                        files.add(spill(buffer));
+                    }
+                    runs = files.size();
+                    MSTMetrics.begin(metrics, MSTMetrics.Phase.SOLVE);
+                    EdgeList tree = merge(files, graph.nodeCount());
+                    MSTMetrics.end(metrics, MSTMetrics.Phase.SOLVE);
+                    if (metrics != null) {
+                        metrics.unionFindFinds += 2 * edgesMerged;
+                        metrics.unionFindUnions += tree.size();
+                    }
+                    mst = tree.toEdges(graph.nodes);
+                }
+            } finally {
+                MSTMetrics.exit(metrics);
+            }
+
+            MSTResult result = new MSTResult(graph.id, KruskalAlgorithm.getMSTWeight(mst), mst);
+            result.strategy = "kruskal-external";
+            result.nodes = graph.nodes;
+            result.countComponents(graph.nodeCount());
+            result.metrics = metrics;
+            return result;
+        } finally {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // Sorts the buffered edges and writes them to a new run file, leaving the buffer empty
+    private Path spill(EdgeList buffer) throws IOException {
+        buffer.sortByWeight();
+        Path file = Files.createTempFile(tempDir, "mst-run-", ".bin");
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer bytes = ioBuffer(1);
+            for (int e = 0; e < buffer.size(); e++) {
+                if (bytes.remaining() < EDGE_BYTES) {
+                    write(out, bytes);
+                }
+                bytes.putInt(buffer.src[e]).putInt(buffer.dest[e]).putInt(buffer.weight[e]);
+            }
+            write(out, bytes);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        buffer.clear();
+        return file;
+    }
+
+    // K-way merge of the sorted runs feeding Kruskal's union-find; returns the tree by vertex indices
+    private EdgeList merge(List<Path> files, int vertices) throws IOException {
+        UnionFind uf = new UnionFind(vertices);
+        EdgeList tree = new EdgeList(Math.max(1, vertices - 1));
+        edgesMerged = 0;
+
+        List<RunReader> readers = new ArrayList<>();
+        try {
+            IndexedDaryHeap heads = new IndexedDaryHeap(files.size());
+            for (Path file : files) {
+                RunReader reader = new RunReader(file, ioBuffer(files.size()));
+                readers.add(reader);
+                if (reader.advance()) {
+                    heads.insert(readers.size() - 1, reader.weight);
+                }
+            }
+
+            while (tree.size() < vertices - 1 && !heads.isEmpty()) {
+                int run = heads.poll();
+                RunReader reader = readers.get(run);
+                edgesMerged++;
+                int rootSrc = uf.find(reader.src);
+                int rootDest = uf.find(reader.dest);
+                if (rootSrc != rootDest) {
+                    tree.add(reader.src, reader.dest, reader.weight);
+                    uf.union(rootSrc, rootDest);
+                }
+                if (reader.advance()) {
+                    heads.insert(run, reader.weight);
+                }
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+        return tree;
+    }
+
+    // Read buffer for one of the given number of open runs, a whole number of edges long
+    private ByteBuffer ioBuffer(int openRuns) {
+        long share = memoryBudget / 4 / openRuns;
+        int size = (int) Math.max(MIN_IO_BUFFER, Math.min(share, 1 << 24));
+        return ByteBuffer.allocateDirect(size - size % EDGE_BYTES).order(BinaryGraphFormat.BYTE_ORDER);
+    }
+
+    private static void write(FileChannel out, ByteBuffer bytes) throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            out.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    // Sequential reader over one sorted run; src, dest and weight hold the current edge
+    private static class RunReader implements Closeable {
+        private final FileChannel in;
+        private final ByteBuffer bytes;
+        int src, dest, weight;
+
+        RunReader(Path file, ByteBuffer bytes) throws IOException {
+            this.in = FileChannel.open(file, StandardOpenOption.READ);
+            this.bytes = bytes;
+            bytes.limit(0);
+        }
+
+        // Moves to the next edge; false at the end of the run
+        boolean advance() throws IOException {
+            if (bytes.remaining() < EDGE_BYTES) {
+                bytes.compact();
+                while (bytes.position() < EDGE_BYTES && in.read(bytes) >= 0) {
+                    // fill until at least one edge is available or the run ends
+                }
+                bytes.flip();
+                if (bytes.remaining() < EDGE_BYTES) {
+                    return false;
+                }
+            }
+            src = bytes.getInt();
+            dest = bytes.getInt();
+            weight = bytes.getInt();
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: ExternalKruskal <input> <output.json> [memory budget in MB] [temp dir]");
+            return;
+        }
+        long budget = args.length > 2 ? Long.parseLong(args[2]) << 20 : DEFAULT_MEMORY_BUDGET;
+        Path tempDir = Paths.get(args.length > 3 ? args[3] : System.getProperty("java.io.tmpdir"));
+
+        System.out.println("=== External-memory Kruskal: " + args[0] + " with a " + (budget >> 20) + " MB budget ===\n");
+
+        ExternalKruskal solver = new ExternalKruskal(budget, tempDir);
+        long start = System.nanoTime();
+        int graphs;
+        try (ResultWriter writer = new ResultWriter(args[1])) {
+            graphs = solver.process(args[0], result -> {
+                if (Log.isEnabled(Log.Level.INFO)) {
+                    Log.info("Graph " + result.graphId + ": " + solver.edgesRead() + " edges in "
+                            + solver.runs() + " runs, " + solver.edgesMerged() + " merged, MST weight " + result.totalWeight);
+                }
+                writer.write(result);
+            });
+        }
+        long elapsed = (System.nanoTime() - start) / 1000000;
+        Log.flush();
+
+        System.out.println("\n✓ " + graphs + " graphs solved in " + elapsed + " ms, results written to " + args[1]);
+    }
+}
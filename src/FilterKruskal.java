@@ -0,0 +1,124 @@
+import java.util.*;
+
+// Filter-Kruskal: quickselect-partitions the edges around a pivot weight, solves the
+// light half first, then drops heavy edges whose endpoints are already connected
+// before looking at them again. On dense graphs most heavy edges are filtered out
+// and never sorted.
+class FilterKruskal {
+    // Ranges this small are simply sorted and scanned
+    private static final int BASE_CASE_SIZE = 1024;
+
+    private final int[] src, dest, weight;
+    private final NodeDictionary nodes;
+    private final int vertices;
+    private final UnionFind uf;
+    private final EdgeList tree = new EdgeList();
+    private final Random random = new Random(42);
+    private long finds; // union-find lookups, for metrics
+
+    private FilterKruskal(EdgeList edges, NodeDictionary nodes) {
+        this.src = edges.src;
+        this.dest = edges.dest;
+        this.weight = edges.weight;
+        this.nodes = nodes;
+        this.vertices = nodes.size();
+        this.uf = new UnionFind(vertices);
+    }
+
+    // Reorders the edge list in place
+    public static List<Edge> mst(EdgeList edges, NodeDictionary nodes) {
+        FilterKruskal solver = new FilterKruskal(edges, nodes);
+        edges.setSortedByWeight(false);
+        MSTMetrics metrics = MSTMetrics.current();
+        MSTMetrics.begin(metrics, MSTMetrics.Phase.SOLVE);
+        solver.solve(0, edges.size());
+        MSTMetrics.end(metrics, MSTMetrics.Phase.SOLVE);
+        if (metrics != null) {
+            metrics.unionFindFinds += solver.finds;
+            metrics.unionFindUnions += solver.tree.size();
+        }
+        return solver.tree.toEdges(nodes);
+    }
+
+    private boolean done() {
+        return tree.size() >= vertices - 1;
+    }
+
+    private void solve(int lo, int hi) {
+        while (!done() && hi > lo) {
+            if (hi - lo <= BASE_CASE_SIZE) {
+                sortRange(lo, hi);
+                scan(lo, hi);
+                return;
+            }
+
+            // Three-way partition: [lo, lt) lighter, [lt, gt) equal, [gt, hi) heavier
+            int pivot = weight[lo + random.nextInt(hi - lo)];
+            int lt = lo, i = lo, gt = hi;
+            while (i < gt) {
+                if (weight[i] < pivot) {
+                    swap(lt++, i++);
+                } else if (weight[i] > pivot) {
+                    swap(i, --gt);
+                } else {
+                    i++;
+                }
+            }
+
+            solve(lo, lt);
+            scan(lt, gt);
+            lo = filter(gt, hi);
+        }
+    }
+
+    // Kruskal step over a range that is already in weight order
+    private void scan(int lo, int hi) {
+        for (int e = lo; e < hi && !done(); e++) {
+            int rootSrc = uf.find(src[e]);
+            int rootDest = uf.find(dest[e]);
+            finds += 2;
+            if (rootSrc != rootDest) {
+                tree.add(src[e], dest[e], weight[e]);
+                uf.union(rootSrc, rootDest);
+            }
+        }
+    }
+
+    // Moves edges that still connect two components to the end of the range;
+    // returns the start of the surviving edges
+    private int filter(int lo, int hi) {
+        int keep = hi;
+        finds += 2L * (hi - lo);
+        for (int e = hi - 1; e >= lo; e--) {
+            if (uf.find(src[e]) != uf.find(dest[e])) {
+                swap(e, --keep);
+            }
+        }
+        return keep;
+    }
+
+    private void sortRange(int lo, int hi) {
+        int n = hi - lo;
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = ((long) weight[lo + i] << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] tmpSrc = Arrays.copyOfRange(src, lo, hi);
+        int[] tmpDest = Arrays.copyOfRange(dest, lo, hi);
+        int[] tmpWeight = Arrays.copyOfRange(weight, lo, hi);
+        for (int i = 0; i < n; i++) {
+            int e = (int) keys[i];
+            src[lo + i] = tmpSrc[e];
+            dest[lo + i] = tmpDest[e];
+            weight[lo + i] = tmpWeight[e];
+        }
+    }
+
+    private void swap(int a, int b) {
+        int t = src[a]; src[a] = src[b]; src[b] = t;
+        t = dest[a]; dest[a] = dest[b]; dest[b] = t;
+        t = weight[a]; weight[a] = weight[b]; weight[b] = t;
+    }
+}
@@ -0,0 +1,46 @@
+import java.util.*;
+
+// Graph read from the input file: a node dictionary plus an EdgeList of node indices
+class Graph {
+    public int id;
+    public NodeDictionary nodes;
+
+    public EdgeList edges = new EdgeList();
+    public MSTMetrics metrics; // null unless metrics are enabled
+
+    public Graph() {
+        this(new SymbolTable());
+    }
+
+    // Graph whose node names are interned in a table shared with other graphs
+    public Graph(SymbolTable symbols) {
+        nodes = new NodeDictionary(symbols);
+    }
+
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    // Returns the index of the node, adding it if it was not seen before
+    public int addNode(String name) {
+        return nodes.add(name);
+    }
+
+    public void addEdge(int from, int to, int w) {
+        edges.add(from, to, w);
+    }
+
+    // Builds a graph from named edges; nodes are numbered in order of first appearance
+    public static Graph fromEdges(List<Edge> edges, int vertices) {
+        Graph graph = new Graph();
+        for (Edge edge : edges) {
+            graph.addEdge(graph.addNode(edge.from), graph.addNode(edge.to), edge.weight);
+        }
+        // Keep room for vertices that never appear in an edge; anonymous nodes cannot
+        // collide with input names, even ones that look like "#2"
+        while (graph.nodeCount() < vertices) {
+            graph.nodes.addAnonymous();
+        }
+        return graph;
+    }
+}
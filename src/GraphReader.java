@@ -0,0 +1,458 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Arrays;
+
+// Streaming reader for the {"graphs": [...]} input format.
+// Bytes are pulled from a channel through a fixed-size buffer and tokenized in a single pass,
+// one graph at a time, so memory stays bounded by the largest graph rather than the whole file.
+// Large files are instead mapped window by window with FileChannel.map and scanned in place.
+class GraphReader implements GraphSource {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long MAP_WINDOW_SIZE = 1L << 28; // 256 MB per mapped window
+    private static final long MAP_THRESHOLD = 1L << 26;   // open() maps files of 64 MB and more
+
+    private static final byte[] KEY_GRAPHS = "graphs".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_ID = "id".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_NODES = "nodes".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_EDGES = "edges".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_FROM = "from".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_TO = "to".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_WEIGHT = "weight".getBytes(StandardCharsets.US_ASCII);
+
+    private final ReadableByteChannel channel;
+    private final boolean mapped;
+    private ByteBuffer window; // read buffer, or the currently mapped part of the file
+    private int pos, limit;
+    private boolean eof;
+    private long consumed; // file offset of the current window
+
+    // Reusable storage for the string token being read
+    private byte[] token = new byte[64];
+    private int tokenLength;
+
+    // Names of a "nodes" array, gathered before any is added so the graph's dictionary is
+    // sized once from their count instead of growing and rehashing along the way
+    private byte[] nodeNames = new byte[256];
+    private int[] nodeNameEnds = new int[16];
+
+    // Node names are interned once for the whole file, up to SymbolTable.MAX_SHARED_SYMBOLS
+    private SymbolTable symbols = new SymbolTable();
+
+    private boolean insideGraphs;
+    private boolean finished;
+
+    public GraphReader(ReadableByteChannel channel) {
+        this(channel, false);
+    }
+
+    private GraphReader(ReadableByteChannel channel, boolean mapped) {
+        this.channel = channel;
+        this.mapped = mapped;
+        if (!mapped) {
+            window = ByteBuffer.allocate(BUFFER_SIZE);
+        }
+    }
+
+    // Opens a file, memory-mapping it when it is large
+    public static GraphReader open(String filename) throws IOException {
+        FileChannel file = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+        return new GraphReader(file, file.size() >= MAP_THRESHOLD);
+    }
+
+    // Opens a file in memory-mapped mode regardless of its size
+    public static GraphReader openMapped(String filename) throws IOException {
+        return new GraphReader(FileChannel.open(Paths.get(filename), StandardOpenOption.READ), true);
+    }
+
+    // Returns the next graph of the "graphs" array, or null when there are no more
+    @Override
+    public Graph next() throws IOException {
+        return next(null);
+    }
+
+    @Override
+    public Graph next(EdgeConsumer edges) throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (!insideGraphs) {
+            findGraphsArray();
+            insideGraphs = true;
+            if (peekNonWhitespace() == ']') {
+                read();
+                finished = true;
+                return null;
+            }
+        } else {
+            int c = readNonWhitespace();
+            if (c == ']') {
+                finished = true;
+                return null;
+            }
+            if (c != ',') {
+                throw error("Expected ',' or ']' after graph");
+            }
+        }
+        return readGraph(edges);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Skips top-level members until the opening bracket of "graphs" is consumed
+    private void findGraphsArray() throws IOException {
+        expect('{');
+        if (peekNonWhitespace() != '}') {
+            do {
+                readString();
+                expect(':');
+                if (tokenIs(KEY_GRAPHS)) {
+                    expect('[');
+                    return;
+                }
+                skipValue();
+            } while (nextMember('}'));
+        }
+        throw new IOException("No 'graphs' array found in input file");
+    }
+
+    private Graph readGraph(EdgeConsumer edges) throws IOException {
+        if (symbols.size() >= SymbolTable.MAX_SHARED_SYMBOLS) {
+            symbols = new SymbolTable();
+        }
+        Graph graph = new Graph(symbols);
+        MSTMetrics.beginParse(graph);
+        expect('{');
+        if (peekNonWhitespace() == '}') {
+            read();
+            MSTMetrics.endParse(graph);
+            return graph;
+        }
+        do {
+            readString();
+            expect(':');
+            if (tokenIs(KEY_ID)) {
+                graph.id = readInt();
+            } else if (tokenIs(KEY_NODES)) {
+                readNodes(graph);
+            } else if (tokenIs(KEY_EDGES)) {
+                readEdges(graph, edges);
+            } else {
+                skipValue();
+            }
+        } while (nextMember('}'));
+        MSTMetrics.endParse(graph);
+        return graph;
+    }
+
+    private void readNodes(Graph graph) throws IOException {
+        expect('[');
+        if (peekNonWhitespace() == ']') {
+            read();
+            return;
+        }
+        int count = 0;
+        int used = 0;
+        do {
+            readString();
+            if (used + tokenLength > nodeNames.length) {
+                nodeNames = Arrays.copyOf(nodeNames, Math.max(nodeNames.length * 2, used + tokenLength));
+            }
+            System.arraycopy(token, 0, nodeNames, used, tokenLength);
+            used += tokenLength;
+            if (count == nodeNameEnds.length) {
+                nodeNameEnds = Arrays.copyOf(nodeNameEnds, count * 2);
+            }
+            nodeNameEnds[count++] = used;
+        } while (nextMember(']'));
+
+        MSTMetrics.begin(graph.metrics, MSTMetrics.Phase.INDEX);
+        graph.nodes.ensureCapacity(count);
+        for (int i = 0, start = 0; i < count; start = nodeNameEnds[i++]) {
+            graph.nodes.add(nodeNames, start, nodeNameEnds[i] - start);
+        }
+        MSTMetrics.end(graph.metrics, MSTMetrics.Phase.INDEX);
+    }
+
+    private void readEdges(Graph graph, EdgeConsumer edges) throws IOException {
+        expect('[');
+        if (peekNonWhitespace() == ']') {
+            read();
+            return;
+        }
+        do {
+            int from = -1, to = -1, weight = 0;
+            boolean hasWeight = false;
+            expect('{');
+            if (peekNonWhitespace() != '}') {
+                do {
+                    readString();
+                    expect(':');
+                    if (tokenIs(KEY_FROM)) {
+                        readString();
+                        from = index(graph);
+                    } else if (tokenIs(KEY_TO)) {
+                        readString();
+                        to = index(graph);
+                    } else if (tokenIs(KEY_WEIGHT)) {
+                        weight = readInt();
+                        hasWeight = true;
+                    } else {
+                        skipValue();
+                    }
+                } while (nextMember('}'));
+            } else {
+                read();
+            }
+            if (from < 0 || to < 0 || !hasWeight) {
+                throw error("Edge is missing \"from\", \"to\" or \"weight\"");
+            }
+            if (edges != null) {
+                edges.edge(from, to, weight);
+            } else {
+                graph.addEdge(from, to, weight);
+            }
+        } while (nextMember(']'));
+    }
+
+    // Index of the name in the token buffer, adding it to the graph if it is new
+    private int index(Graph graph) {
+        MSTMetrics.begin(graph.metrics, MSTMetrics.Phase.INDEX);
+        int index = graph.nodes.add(token, 0, tokenLength);
+        MSTMetrics.end(graph.metrics, MSTMetrics.Phase.INDEX);
+        return index;
+    }
+
+    // Consumes the separator after a member; true if another member follows
+    private boolean nextMember(char close) throws IOException {
+        int c = readNonWhitespace();
+        if (c == ',') return true;
+        if (c == close) return false;
+        throw error("Expected ',' or '" + close + "'");
+    }
+
+    private void skipValue() throws IOException {
+        int c = peekNonWhitespace();
+        if (c == '"') {
+            readString();
+        } else if (c == '{' || c == '[') {
+            char close = c == '{' ? '}' : ']';
+            read();
+            if (peekNonWhitespace() == close) {
+                read();
+                return;
+            }
+            do {
+                if (c == '{') {
+                    readString();
+                    expect(':');
+                }
+                skipValue();
+            } while (nextMember(close));
+        } else {
+            // Number, true, false or null
+            while ((c = peek()) != -1 && c != ',' && c != '}' && c != ']' && !isWhitespace(c)) {
+                read();
+            }
+        }
+    }
+
+    private int readInt() throws IOException {
+        int c = readNonWhitespace();
+        boolean negative = c == '-';
+        if (negative) {
+            c = read();
+        }
+        if (c < '0' || c > '9') {
+            throw error("Expected a number");
+        }
+        long value = c - '0';
+        while ((c = peek()) >= '0' && c <= '9') {
+            read();
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE + 1L) {
+                throw error("Number out of range");
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw error("Number out of range");
+        }
+        return (int) value;
+    }
+
+    // Reads a JSON string into the token buffer, decoding escape sequences
+    private void readString() throws IOException {
+        expect('"');
+        tokenLength = 0;
+        int c;
+        while ((c = read()) != '"') {
+            if (c == -1) {
+                throw error("Unterminated string");
+            }
+            if (c == '\\') {
+                c = read();
+                switch (c) {
+                    case 'b': c = '\b'; break;
+                    case 'f': c = '\f'; break;
+                    case 'n': c = '\n'; break;
+                    case 'r': c = '\r'; break;
+                    case 't': c = '\t'; break;
+                    case 'u': appendUtf8(readEscapedCodePoint()); continue;
+                    case '"': case '\\': case '/': break;
+                    default: throw error("Invalid escape sequence");
+                }
+            }
+            append(c);
+        }
+    }
+
+    private int readHex4() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw error("Invalid \\u escape");
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    // Code point of a Unicode escape whose backslash and 'u' were just read. Characters outside
+    // the Basic Multilingual Plane arrive as a surrogate pair of two escapes, which must be
+    // combined so they are encoded as one 4-byte UTF-8 sequence; a lone surrogate is invalid.
+    private int readEscapedCodePoint() throws IOException {
+        int ch = readHex4();
+        if (Character.isLowSurrogate((char) ch)) {
+            throw error("Invalid \\u escape");
+        }
+        if (!Character.isHighSurrogate((char) ch)) {
+            return ch;
+        }
+        if (read() != '\\' || read() != 'u') {
+            throw error("Invalid \\u escape");
+        }
+        int low = readHex4();
+        if (!Character.isLowSurrogate((char) low)) {
+            throw error("Invalid \\u escape");
+        }
+        return Character.toCodePoint((char) ch, (char) low);
+    }
+
+    private void appendUtf8(int ch) {
+        if (ch < 0x80) {
+            append(ch);
+        } else if (ch < 0x800) {
+            append(0xC0 | (ch >> 6));
+            append(0x80 | (ch & 0x3F));
+        } else if (ch < 0x10000) {
+            append(0xE0 | (ch >> 12));
+            append(0x80 | ((ch >> 6) & 0x3F));
+            append(0x80 | (ch & 0x3F));
+        } else {
+            append(0xF0 | (ch >> 18));
+            append(0x80 | ((ch >> 12) & 0x3F));
+            append(0x80 | ((ch >> 6) & 0x3F));
+            append(0x80 | (ch & 0x3F));
+        }
+    }
+
+    private void append(int b) {
+        if (tokenLength == token.length) {
+            token = Arrays.copyOf(token, tokenLength * 2);
+        }
+        token[tokenLength++] = (byte) b;
+    }
+
+    private boolean tokenIs(byte[] key) {
+        if (tokenLength != key.length) return false;
+        for (int i = 0; i < tokenLength; i++) {
+            if (token[i] != key[i]) return false;
+        }
+        return true;
+    }
+
+    private void expect(char expected) throws IOException {
+        if (readNonWhitespace() != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    private int readNonWhitespace() throws IOException {
+        int c = peekNonWhitespace();
+        read();
+        return c;
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        int c;
+        while ((c = peek()) != -1 && isWhitespace(c)) {
+            pos++;
+        }
+        if (c == -1) {
+            throw error("Unexpected end of input");
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return window.get(pos) & 0xFF;
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return window.get(pos++) & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        consumed += limit;
+        if (mapped) {
+            FileChannel file = (FileChannel) channel;
+            long remaining = file.size() - consumed;
+            if (remaining <= 0) {
+                eof = true;
+                pos = limit = 0;
+                return false;
+            }
+            window = file.map(FileChannel.MapMode.READ_ONLY, consumed, Math.min(remaining, MAP_WINDOW_SIZE));
+            pos = 0;
+            limit = window.limit();
+            return true;
+        }
+        window.clear();
+        int n;
+        do {
+            n = channel.read(window);
+        } while (n == 0);
+        if (n < 0) {
+            eof = true;
+            pos = limit = 0;
+            return false;
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private IOException error(String message) {
+        return new IOException(message + " at byte " + (consumed + pos));
+    }
+}
@@ -0,0 +1,33 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+// Source of graphs read one at a time, from either the JSON or the binary input format
+interface GraphSource extends Closeable {
+
+    // Returns the next graph, or null when there are no more
+    Graph next() throws IOException;
+
+    // Same as next(), but hands the edges to the consumer as they are read instead of storing
+    // them, so only the node dictionary of the graph is kept in memory
+    Graph next(EdgeConsumer edges) throws IOException;
+
+    interface EdgeConsumer {
+        void edge(int from, int to, int weight) throws IOException;
+    }
+
+    // Opens a graph file, detecting the binary format from its magic number
+    static GraphSource open(String filename) throws IOException {
+        try (FileChannel file = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(4).order(BinaryGraphFormat.BYTE_ORDER);
+            while (header.hasRemaining() && file.read(header) >= 0) {
+                // keep reading until the magic number is complete or the file ends
+            }
+            if (!header.hasRemaining() && header.getInt(0) == BinaryGraphFormat.MAGIC) {
+                return new BinaryGraphReader(filename);
+            }
+        }
+        return GraphReader.open(filename);
+    }
+}
@@ -0,0 +1,370 @@
+import java.util.*;
+import java.io.*;
+
+// Keeps the minimum spanning forest of a graph up to date as edges are inserted or
+// reweighted, instead of recomputing it from scratch after every change.
+//
+// The forest lives in a link-cut tree with one node per vertex and one per tree edge,
+// so the heaviest edge on the path between two vertices is found in O(log n). The node
+// of a cut edge goes on a free list for the next linked edge, so the tree never holds
+// more than two nodes per vertex however many updates are applied:
+//   - an edge that gets lighter (or is new) replaces the heaviest edge on the cycle it closes
+//   - a tree edge that gets lighter stays in the tree
+//   - a non-tree edge that gets heavier changes nothing
+//   - a tree edge that gets heavier is cut, and the lightest edge reconnecting the two halves
+//     takes its place; this is the only case that scans the non-tree edges, O(m log n)
+//
+// An edge is identified by its endpoints: updating an existing pair changes its weight,
+// a new pair is inserted. Parallel edges in the initial graph are merged into the lightest.
+public class IncrementalMST {
+    private static final int NO_EDGE = -1;
+
+    private final int graphId;
+    private final NodeDictionary nodes;
+    private final LinkCutTree tree;
+    private int[] vertexNode = new int[16]; // vertex -> link-cut node
+    private int[] nodeEdge = new int[16];   // link-cut node -> edge id, NO_EDGE for vertices and free nodes
+    private int[] freeNodes = new int[16];  // isolated link-cut nodes left behind by cut edges
+    private int freeCount;
+    private int vertices;
+
+    // Edges by id, with the link-cut node of tree edges
+    private int[] edgeSrc = new int[16], edgeDest = new int[16], edgeWeight = new int[16];
+    private int[] edgeNode = new int[16];   // NO_EDGE when not in the tree
+    private int edgeCount;
+    private final Map<Long, Integer> edgeByPair = new HashMap<>();
+    private int totalWeight;
+    private int treeEdges;
+
+    // Tree state of the edges touched by the current update, to build its delta
+    private final List<Integer> touched = new ArrayList<>();
+    private final Map<Integer, Long> before = new HashMap<>();
+
+    // Change to the spanning forest caused by one update or batch of updates.
+    // An edge whose weight changed while staying in the tree is listed in both lists.
+    public static class Delta {
+        public final List<Edge> added;
+        public final List<Edge> removed;
+        public final int totalWeight; // forest weight after the update
+
+        Delta(List<Edge> added, List<Edge> removed, int totalWeight) {
+            this.added = added;
+            this.removed = removed;
+            this.totalWeight = totalWeight;
+        }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    // Builds the initial forest with Kruskal. The graph's edge list is not modified, but
+    // nodes introduced by later updates are added to its dictionary
+    public IncrementalMST(Graph graph) {
+        this.graphId = graph.id;
+        this.nodes = graph.nodes;
+        EdgeList edges = graph.edges;
+        this.tree = new LinkCutTree(2 * nodes.size() + 1);
+        for (int v = 0; v < nodes.size(); v++) {
+            addVertex(v);
+        }
+
+        for (int e = 0; e < edges.size(); e++) {
+            int id = edgeId(edges.src[e], edges.dest[e]);
+            edgeWeight[id] = Math.min(edgeWeight[id], edges.weight[e]);
+        }
+
+        // Kruskal over the merged edges, sorted as packed (weight, id) pairs
+        long[] order = new long[edgeCount];
+        for (int id = 0; id < edgeCount; id++) {
+            order[id] = ((long) edgeWeight[id] << 32) | id;
+        }
+        Arrays.sort(order);
+        UnionFind uf = new UnionFind(nodes.size());
+        for (long packed : order) {
+            int id = (int) packed;
+            int rootSrc = uf.find(edgeSrc[id]);
+            int rootDest = uf.find(edgeDest[id]);
+            if (rootSrc != rootDest) {
+                uf.union(rootSrc, rootDest);
+                linkEdge(id);
+            }
+        }
+    }
+
+    // Sets the weight of the edge between two nodes, inserting the edge (and any new node) if needed
+    public Delta update(String from, String to, int weight) {
+        touched.clear();
+        before.clear();
+        apply(from, to, weight);
+        return delta();
+    }
+
+    // Applies several updates in order and returns their combined effect
+    public Delta apply(List<Edge> updates) {
+        touched.clear();
+        before.clear();
+        for (Edge edge : updates) {
+            apply(edge.from, edge.to, edge.weight);
+        }
+        return delta();
+    }
+
+    public int totalWeight() {
+        return totalWeight;
+    }
+
+    // Current spanning forest as a result
+    public MSTResult result() {
+        List<Edge> mst = new ArrayList<>(treeEdges);
+        for (int id = 0; id < edgeCount; id++) {
+            if (edgeNode[id] != NO_EDGE) {
+                mst.add(toEdge(id, edgeWeight[id]));
+            }
+        }
+        MSTResult result = new MSTResult(graphId, totalWeight, mst);
+        result.strategy = "incremental";
+        result.nodes = nodes;
+        result.countComponents(vertices);
+        return result;
+    }
+
+    // Current edge set, e.g. to check the forest against a full recomputation
+    public Graph graph() {
+        Graph graph = new Graph();
+        graph.id = graphId;
+        graph.nodes = nodes;
+        for (int id = 0; id < edgeCount; id++) {
+            graph.addEdge(edgeSrc[id], edgeDest[id], edgeWeight[id]);
+        }
+        return graph;
+    }
+
+    private void apply(String from, String to, int weight) {
+        int u = vertex(from);
+        int v = vertex(to);
+        Integer existing = edgeByPair.get(pairKey(u, v));
+        if (existing == null) {
+            int id = edgeId(u, v);
+            edgeWeight[id] = weight;
+            edgeNode[id] = NO_EDGE;
+            touch(id);
+            offer(id);
+            return;
+        }
+
+        int id = existing;
+        int old = edgeWeight[id];
+        if (weight == old) {
+            return;
+        }
+        touch(id);
+        if (edgeNode[id] == NO_EDGE) {
+            edgeWeight[id] = weight;
+            if (weight < old) {
+                offer(id);
+            }
+        } else if (weight < old) {
+            tree.setValue(edgeNode[id], weight);
+            edgeWeight[id] = weight;
+            totalWeight += weight - old;
+        } else {
+            edgeWeight[id] = weight;
+            cutEdge(id, old);
+            replace(id);
+        }
+    }
+
+    // Adds a non-tree edge to the forest if it is lighter than the heaviest edge on its cycle
+    private void offer(int id) {
+        int u = edgeSrc[id], v = edgeDest[id];
+        if (u == v) {
+            return;
+        }
+        if (!tree.connected(vertexNode[u], vertexNode[v])) {
+            linkEdge(id);
+            return;
+        }
+        int heaviest = tree.pathMax(vertexNode[u], vertexNode[v]);
+        int out = edgeOf(heaviest);
+        if (out != NO_EDGE && edgeWeight[out] > edgeWeight[id]) {
+            touch(out);
+            cutEdge(out, edgeWeight[out]);
+            linkEdge(id);
+        }
+    }
+
+    // After tree edge id was cut, reconnects its two halves with the lightest crossing edge (possibly id itself)
+    private void replace(int id) {
+        int sideA = tree.findRoot(vertexNode[edgeSrc[id]]);
+        int sideB = tree.findRoot(vertexNode[edgeDest[id]]);
+        int best = id;
+        for (int e = 0; e < edgeCount; e++) {
+            if (edgeNode[e] != NO_EDGE || edgeWeight[e] >= edgeWeight[best]) {
+                continue;
+            }
+            int a = tree.findRoot(vertexNode[edgeSrc[e]]);
+            int b = tree.findRoot(vertexNode[edgeDest[e]]);
+            if ((a == sideA && b == sideB) || (a == sideB && b == sideA)) {
+                best = e;
+            }
+        }
+        touch(best);
+        linkEdge(best);
+    }
+
+    private void linkEdge(int id) {
+        int node;
+        if (freeCount > 0) {
+            node = freeNodes[--freeCount];
+            tree.setValue(node, edgeWeight[id]);
+        } else {
+            node = tree.addNode(edgeWeight[id]);
+        }
+        edgeNode[id] = node;
+        registerNode(node, id);
+        tree.link(vertexNode[edgeSrc[id]], node);
+        tree.link(node, vertexNode[edgeDest[id]]);
+        totalWeight += edgeWeight[id];
+        treeEdges++;
+    }
+
+    // Cuts a tree edge whose weight in the forest is treeWeight
+    private void cutEdge(int id, int treeWeight) {
+        int node = edgeNode[id];
+        tree.cut(vertexNode[edgeSrc[id]], node);
+        tree.cut(node, vertexNode[edgeDest[id]]);
+        registerNode(node, NO_EDGE); // the link-cut node is left isolated, ready for reuse
+        if (freeCount == freeNodes.length) {
+            freeNodes = Arrays.copyOf(freeNodes, freeCount * 2);
+        }
+        freeNodes[freeCount++] = node;
+        edgeNode[id] = NO_EDGE;
+        totalWeight -= treeWeight;
+        treeEdges--;
+    }
+
+    private void registerNode(int node, int id) {
+        if (node >= nodeEdge.length) {
+            nodeEdge = Arrays.copyOf(nodeEdge, Math.max(node + 1, nodeEdge.length * 2));
+        }
+        nodeEdge[node] = id;
+    }
+
+    private int edgeOf(int node) {
+        return node < nodeEdge.length ? nodeEdge[node] : NO_EDGE;
+    }
+
+    private int vertex(String name) {
+        int v = nodes.add(name);
+        if (v >= vertices) {
+            addVertex(v);
+        }
+        return v;
+    }
+
+    private void addVertex(int v) {
+        if (v >= vertexNode.length) {
+            vertexNode = Arrays.copyOf(vertexNode, Math.max(v + 1, vertexNode.length * 2));
+        }
+        // Vertices never win a path maximum
+        vertexNode[v] = tree.addNode(Integer.MIN_VALUE);
+        registerNode(vertexNode[v], NO_EDGE);
+        vertices = v + 1;
+    }
+
+    // Returns the id of the edge between u and v, creating it if needed
+    private int edgeId(int u, int v) {
+        Long key = pairKey(u, v);
+        Integer existing = edgeByPair.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (edgeCount == edgeSrc.length) {
+            int capacity = edgeCount * 2;
+            edgeSrc = Arrays.copyOf(edgeSrc, capacity);
+            edgeDest = Arrays.copyOf(edgeDest, capacity);
+            edgeWeight = Arrays.copyOf(edgeWeight, capacity);
+            edgeNode = Arrays.copyOf(edgeNode, capacity);
+        }
+        int id = edgeCount++;
+        edgeSrc[id] = u;
+        edgeDest[id] = v;
+        edgeWeight[id] = Integer.MAX_VALUE;
+        edgeNode[id] = NO_EDGE;
+        edgeByPair.put(key, id);
+        return id;
+    }
+
+    private static long pairKey(int u, int v) {
+        return ((long) Math.min(u, v) << 32) | Math.max(u, v);
+    }
+
+    private Edge toEdge(int id, int weight) {
+        return new Edge(edgeSrc[id], edgeDest[id], weight, nodes);
+    }
+
+    // Remembers whether the edge was in the tree, and at what weight, before the first change
+    private void touch(int id) {
+        if (!before.containsKey(id)) {
+            touched.add(id);
+            before.put(id, edgeNode[id] != NO_EDGE ? edgeWeight[id] : Long.MIN_VALUE);
+        }
+    }
+
+    private Delta delta() {
+        List<Edge> added = new ArrayList<>();
+        List<Edge> removed = new ArrayList<>();
+        for (int id : touched) {
+            long old = before.get(id);
+            boolean wasInTree = old != Long.MIN_VALUE;
+            boolean inTree = edgeNode[id] != NO_EDGE;
+            boolean unchanged = wasInTree && inTree && old == edgeWeight[id];
+            if (wasInTree && !unchanged) {
+                removed.add(toEdge(id, (int) old));
+            }
+            if (inTree && !unchanged) {
+                added.add(toEdge(id, edgeWeight[id]));
+            }
+        }
+        return new Delta(added, removed, totalWeight);
+    }
+
+    // Applies random insertions and reweights to every graph of a file and checks each
+    // maintained forest against a Kruskal recomputation
+    public static void main(String[] args) {
+        String filename = args.length > 0 ? args[0] : "ass_3_input.json";
+        int updates = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Random random = new Random(42);
+        boolean allMatch = true;
+
+        System.out.println("=== Incremental MST: " + updates + " updates per graph ===\n");
+
+        try (GraphSource reader = GraphSource.open(filename)) {
+            Graph graph;
+            while ((graph = reader.next()) != null) {
+                IncrementalMST mst = new IncrementalMST(graph);
+                int vertices = graph.nodeCount();
+                int changes = 0;
+                for (int i = 0; i < updates && vertices > 0; i++) {
+                    String from = graph.nodes.name(random.nextInt(vertices));
+                    String to = graph.nodes.name(random.nextInt(vertices));
+                    changes += mst.update(from, to, 1 + random.nextInt(100)).isEmpty() ? 0 : 1;
+                }
+
+                int expected = KruskalAlgorithm.getMSTWeight(KruskalAlgorithm.kruskalMST(mst.graph()));
+                boolean match = expected == mst.totalWeight();
+                allMatch &= match;
+                System.out.printf("  Graph %d: incremental=%d, recomputed=%d, %d updates changed the tree %s\n",
+                        graph.id, mst.totalWeight(), expected, changes, match ? "✓" : "✗ MISMATCH!");
+            }
+
+        } catch (IOException e) {
+            System.err.println("Error processing file: " + e.getMessage());
+            return;
+        }
+
+        System.out.println(allMatch ? "\n✓ Incremental forests match recomputation."
+                : "\n✗ Incremental forests disagree with recomputation!");
+    }
+}
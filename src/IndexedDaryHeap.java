@@ -0,0 +1,146 @@
+import java.util.Arrays;
+
+// Indexed d-ary min-heap over vertices 0..capacity-1 with int keys.
+// Each vertex is in the heap at most once and decreaseKey moves it in place,
+// so the heap never holds more than V entries and allocates nothing after construction.
+class IndexedDaryHeap {
+    public static final int DEFAULT_ARITY = 4;
+
+    private final int arity;
+    private int[] heap;     // heap position -> vertex
+    private int[] position; // vertex -> heap position, -1 when absent
+    private int[] keys;     // vertex -> key
+    private int size;
+
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2, got " + arity);
+        }
+        this.arity = arity;
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public int arity() {
+        return arity;
+    }
+
+    // Makes room for vertices 0..capacity-1, keeping the current entries
+    public void ensureCapacity(int capacity) {
+        if (position.length < capacity) {
+            int old = position.length;
+            heap = Arrays.copyOf(heap, capacity);
+            position = Arrays.copyOf(position, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            Arrays.fill(position, old, capacity, -1);
+        }
+    }
+
+    // Removes all entries in O(size)
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int vertex) {
+        return position[vertex] >= 0;
+    }
+
+    public int key(int vertex) {
+        return keys[vertex];
+    }
+
+    public void insert(int vertex, int key) {
+        if (contains(vertex)) {
+            throw new IllegalStateException("Vertex " + vertex + " is already in the heap");
+        }
+        keys[vertex] = key;
+        heap[size] = vertex;
+        position[vertex] = size;
+        siftUp(size++);
+    }
+
+    // Lowers the key of a vertex that is in the heap
+    public void decreaseKey(int vertex, int key) {
+        if (key > keys[vertex]) {
+            throw new IllegalArgumentException("New key " + key + " is larger than " + keys[vertex]);
+        }
+        keys[vertex] = key;
+        siftUp(position[vertex]);
+    }
+
+    // Removes and returns the vertex with the smallest key
+    public int poll() {
+        int min = heap[0];
+        position[min] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    private void siftUp(int i) {
+        int vertex = heap[i];
+        int key = keys[vertex];
+        while (i > 0) {
+            int parent = (i - 1) / arity;
+            int parentVertex = heap[parent];
+            if (keys[parentVertex] <= key) {
+                break;
+            }
+            heap[i] = parentVertex;
+            position[parentVertex] = i;
+            i = parent;
+        }
+        heap[i] = vertex;
+        position[vertex] = i;
+    }
+
+    private void siftDown(int i) {
+        int vertex = heap[i];
+        int key = keys[vertex];
+        while (true) {
+            int first = i * arity + 1;
+            if (first >= size) {
+                break;
+            }
+            // Find the smallest child
+            int best = first;
+            int last = Math.min(first + arity, size);
+            for (int child = first + 1; child < last; child++) {
+                if (keys[heap[child]] < keys[heap[best]]) {
+                    best = child;
+                }
+            }
+            int bestVertex = heap[best];
+            if (keys[bestVertex] >= key) {
+                break;
+            }
+            heap[i] = bestVertex;
+            position[bestVertex] = i;
+            i = best;
+        }
+        heap[i] = vertex;
+        position[vertex] = i;
+    }
+}
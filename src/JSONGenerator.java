@@ -1,18 +1,66 @@
 import java.util.*;
 import java.io.*;
-import java.util.concurrent.ThreadLocalRandom;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
 
+// Generates test input files. Every graph is connected and has no duplicate edges.
+//
+// Output is reproducible: all randomness comes from one seed, so the same arguments
+// always produce the same file. Edges are generated one at a time into a block buffer;
+// full blocks are formatted as JSON in parallel chunks and written in order, so memory
+// stays bounded by the block and the duplicate check, even for graphs of 10M+ edges.
 public class JSONGenerator {
+    public static final long DEFAULT_SEED = 42;
+
+    // Shapes of graph to generate
+    public enum Topology {
+        DENSE,         // random spanning tree plus random edges, 20-60% of all pairs
+        SPARSE,        // random spanning tree plus a few random edges, E close to V
+        GRID,          // 4-neighbour lattice, filled row by row
+        POWER_LAW,     // preferential attachment (Barabasi-Albert), 3 edges per new vertex
+        NEAR_COMPLETE; // 90-99% of all pairs
+
+        // Number of edges a graph of this shape gets by default (ignored for GRID)
+        long defaultEdges(int vertices, SplittableRandom random) {
+            long pairs = (long) vertices * (vertices - 1) / 2;
+            switch (this) {
+                case DENSE:
+                    return (long) ((double) vertices * (vertices - 1) * random.nextDouble(0.1, 0.3));
+                case SPARSE:
+                    return vertices + vertices / 8;
+                case POWER_LAW:
+                    return 3L * vertices;
+                case NEAR_COMPLETE:
+                    return (long) (pairs * random.nextDouble(0.9, 0.99));
+                default:
+                    return 0;
+            }
+        }
+    }
+
+    private static final int CHUNK_EDGES = 1 << 15;
+    private static final int BLOCK_CHUNKS = Math.min(16, 2 * Runtime.getRuntime().availableProcessors());
 
     public static void main(String[] args) {
-        generateAllTestFiles();
+        if (args.length == 0) {
+            generateAllTestFiles();
+            return;
+        }
+        if (args.length < 4) {
+            System.out.println("Usage: JSONGenerator <output.json> <graphs> <min vertices> <max vertices> [topology] [seed]");
+            System.out.println("Topologies: " + Arrays.toString(Topology.values()).toLowerCase(Locale.ROOT));
+            return;
+        }
+        Topology topology = args.length > 4 ? topology(args[4]) : Topology.DENSE;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : DEFAULT_SEED;
+        generateTestFile(args[0], Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]), topology, seed);
     }
 
     public static void generateAllTestFiles() {
         // File 1: 5 small graphs
         generateTestFile("test_small_5graphs.json", 5, 5, 30);
 
-        // File 2: 10 medium graphs  
+        // File 2: 10 medium graphs
         generateTestFile("test_medium_10graphs.json", 10, 30, 300);
 
         // File 3: 10 large graphs
@@ -22,82 +70,263 @@ public class JSONGenerator {
         generateTestFile("test_xlarge_5graphs.json", 5, 1000, 2000);
     }
 
-    private static String getNodeName(int index) {
-        StringBuilder name = new StringBuilder();
+    // Accepts names such as "power-law" or "POWER_LAW"
+    static Topology topology(String name) {
+        return Topology.valueOf(name.toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    // Appends A..Z, AA, AB, ... without building an intermediate string
+    private static StringBuilder appendNodeName(StringBuilder out, int index) {
+        int start = out.length();
         while (index >= 0) {
-            name.insert(0, (char)('A' + (index % 26)));
+            out.append((char) ('A' + (index % 26)));
             index = (index / 26) - 1;
         }
-        return name.toString();
+        for (int i = start, j = out.length() - 1; i < j; i++, j--) {
+            char c = out.charAt(i);
+            out.setCharAt(i, out.charAt(j));
+            out.setCharAt(j, c);
+        }
+        return out;
     }
 
     private static void generateTestFile(String filename, int numGraphs, int minVertices, int maxVertices) {
-        try {
-            FileWriter writer = new FileWriter(filename);
-            writer.write("{\n  \"graphs\": [\n");
+        generateTestFile(filename, numGraphs, minVertices, maxVertices, Topology.DENSE, DEFAULT_SEED);
+    }
+
+    public static void generateTestFile(String filename, int numGraphs, int minVertices, int maxVertices,
+                                        Topology topology, long seed) {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(filename), 1 << 20)) {
+            write(out, "{\n  \"graphs\": [\n");
+            SplittableRandom sizes = new SplittableRandom(seed);
 
             for (int graphId = 1; graphId <= numGraphs; graphId++) {
-                int vertices = ThreadLocalRandom.current().nextInt(minVertices, maxVertices + 1);
-                int edges = (int)(vertices * (vertices - 1) * ThreadLocalRandom.current().nextDouble(0.1, 0.3));
+                int vertices = sizes.nextInt(minVertices, maxVertices + 1);
+                // Each graph gets its own stream, so a graph does not depend on how much randomness the previous one used
+                SplittableRandom random = sizes.split();
+                long edges = topology.defaultEdges(vertices, random);
 
-                writer.write("    {\n");
-                writer.write("      \"id\": " + graphId + ",\n");
-                writer.write("      \"nodes\": [");
+                write(out, "    {\n");
+                write(out, "      \"id\": " + graphId + ",\n");
+                write(out, "      \"nodes\": [");
 
                 // Generate nodes
+                StringBuilder names = new StringBuilder();
                 for (int i = 0; i < vertices; i++) {
-                    writer.write("\"" + getNodeName(i) + "\"");
-                    if (i < vertices - 1) writer.write(", ");
+                    names.append('"');
+                    appendNodeName(names, i).append('"');
+                    if (i < vertices - 1) names.append(", ");
+                    if (names.length() >= 1 << 16) {
+                        write(out, names);
+                        names.setLength(0);
+                    }
                 }
-                writer.write("],\n");
+                names.append("],\n");
+                write(out, names);
 
                 // Generate edges
-                writer.write("      \"edges\": [\n");
-                Set<String> edgeSet = new HashSet<>();
-
-                // Ensure connectivity with spanning tree
-                for (int i = 1; i < vertices; i++) {
-                    int from = ThreadLocalRandom.current().nextInt(i);
-                    int weight = ThreadLocalRandom.current().nextInt(1, 100);
-                    writer.write("        {\"from\": \"" + getNodeName(from) + "\", \"to\": \"" + getNodeName(i) + "\", \"weight\": " + weight + "}");
-                    edgeSet.add(from + "-" + i);
-                    if (i < vertices - 1 || edges > vertices - 1) writer.write(",\n");
-                    else writer.write("\n");
+                write(out, "      \"edges\": [\n");
+                EdgeWriter edgeWriter = new EdgeWriter(out);
+                generateEdges(topology, vertices, edges, random, edgeWriter);
+                edgeWriter.finish();
+
+                write(out, "      ]\n");
+                write(out, "    }");
+                if (graphId < numGraphs) write(out, ",");
+                write(out, "\n");
+
+                if (Log.isEnabled(Log.Level.INFO)) {
+                    Log.info("Generated: " + filename + " - Graph " + graphId + " (" + vertices + " vertices, " + edgeWriter.written + " edges)");
                 }
+            }
 
-                // Add random edges
-                int added = 0;
-                int maxAttempts = edges * 10;
-                int attempts = 0;
-
-                while (added < edges - (vertices - 1) && attempts < maxAttempts) {
-                    int from = ThreadLocalRandom.current().nextInt(vertices);
-                    int to = ThreadLocalRandom.current().nextInt(vertices);
-                    attempts++;
-
-                    if (from != to && !edgeSet.contains(from + "-" + to) && !edgeSet.contains(to + "-" + from)) {
-                        int weight = ThreadLocalRandom.current().nextInt(1, 100);
-                        writer.write("        {\"from\": \"" + getNodeName(from) + "\", \"to\": \"" + getNodeName(to) + "\", \"weight\": " + weight + "}");
-                        edgeSet.add(from + "-" + to);
-                        added++;
-                        if (added < edges - (vertices - 1)) writer.write(",\n");
-                        else writer.write("\n");
-                    }
+            write(out, "  ]\n}");
+
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+        Log.flush();
+    }
+
+    // Generates one graph of the given shape. edges is the target edge count, clamped to what
+    // the vertex count allows (a spanning tree at least, every pair at most).
+    static void generateEdges(Topology topology, int vertices, long edges, SplittableRandom random,
+                              GraphSource.EdgeConsumer out) throws IOException {
+        switch (topology) {
+            case GRID:
+                generateGrid(vertices, random, out);
+                break;
+            case POWER_LAW:
+                generatePowerLaw(vertices, (int) Math.max(1, Math.min(vertices - 1, edges / Math.max(1, vertices))), random, out);
+                break;
+            default:
+                generateUniform(vertices, edges, random, out);
+        }
+    }
+
+    // Edges of one generated graph in memory, with the family's default edge count when edges < 0
+    static EdgeList generateEdges(String topology, int vertices, long edges, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Topology shape = topology(topology);
+        EdgeList list = new EdgeList();
+        try {
+            generateEdges(shape, vertices, edges >= 0 ? edges : shape.defaultEdges(vertices, random), random, list::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // adding to a list does not fail
+        }
+        return list;
+    }
+
+    private static int weight(SplittableRandom random) {
+        return random.nextInt(1, 100);
+    }
+
+    // Random spanning tree plus random extra pairs
+    private static void generateUniform(int vertices, long edges, SplittableRandom random,
+                                        GraphSource.EdgeConsumer out) throws IOException {
+        long pairs = (long) vertices * (vertices - 1) / 2;
+        long treeEdges = Math.max(0, vertices - 1);
+        edges = Math.max(treeEdges, Math.min(edges, pairs));
+        long extra = edges - treeEdges;
+        long free = pairs - treeEdges;
+        // Above half of the free pairs, drawing the pairs to leave out is cheaper than drawing the ones to keep
+        boolean complement = extra > free / 2;
+        EdgeKeySet taken = new EdgeKeySet(vertices, treeEdges + (complement ? free - extra : extra));
+
+        // Ensure connectivity with spanning tree
+        for (int i = 1; i < vertices; i++) {
+            int from = random.nextInt(i);
+            taken.add(from, i);
+            out.edge(from, i, weight(random));
+        }
+
+        if (!complement) {
+            for (long added = 0; added < extra; added++) {
+                int from, to;
+                do {
+                    from = random.nextInt(vertices);
+                    to = random.nextInt(vertices);
+                } while (from == to || !taken.add(from, to));
+                out.edge(from, to, weight(random));
+            }
+            return;
+        }
+
+        for (long skipped = 0; skipped < free - extra; skipped++) {
+            int from, to;
+            do {
+                from = random.nextInt(vertices);
+                to = random.nextInt(vertices);
+            } while (from == to || !taken.add(from, to));
+        }
+        for (int to = 1; to < vertices; to++) {
+            for (int from = 0; from < to; from++) {
+                if (!taken.contains(from, to)) {
+                    out.edge(from, to, weight(random));
                 }
+            }
+        }
+    }
 
-                writer.write("      ]\n");
-                writer.write("    }");
-                if (graphId < numGraphs) writer.write(",");
-                writer.write("\n");
+    // Lattice with as few columns as keep it square; the last row may be partial
+    private static void generateGrid(int vertices, SplittableRandom random, GraphSource.EdgeConsumer out) throws IOException {
+        int columns = Math.max(1, (int) Math.ceil(Math.sqrt(vertices)));
+        for (int v = 0; v < vertices; v++) {
+            if ((v + 1) % columns != 0 && v + 1 < vertices) {
+                out.edge(v, v + 1, weight(random));
+            }
+            if (v + columns < vertices) {
+                out.edge(v, v + columns, weight(random));
+            }
+        }
+    }
 
-                System.out.println("Generated: " + filename + " - Graph " + graphId + " (" + vertices + " vertices, " + edgeSet.size() + " edges)");
+    // Each new vertex attaches to perVertex distinct earlier vertices, chosen with probability
+    // proportional to their degree by sampling the list of all edge endpoints
+    private static void generatePowerLaw(int vertices, int perVertex, SplittableRandom random,
+                                         GraphSource.EdgeConsumer out) throws IOException {
+        int[] endpoints = new int[(int) Math.min(Integer.MAX_VALUE - 8, 2L * perVertex * vertices)];
+        int count = 0;
+        int[] chosen = new int[perVertex];
+
+        for (int v = 1; v < vertices; v++) {
+            int links = Math.min(perVertex, v);
+            for (int k = 0; k < links; k++) {
+                int target;
+                if (links == v) {
+                    target = k; // every earlier vertex is needed
+                } else {
+                    boolean duplicate;
+                    do {
+                        target = endpoints[random.nextInt(count)];
+                        duplicate = false;
+                        for (int j = 0; j < k; j++) {
+                            duplicate |= chosen[j] == target;
+                        }
+                    } while (duplicate);
+                }
+                chosen[k] = target;
+                out.edge(target, v, weight(random));
             }
+            // Recorded only now, so v cannot be drawn as its own neighbour
+            for (int k = 0; k < links && count + 2 <= endpoints.length; k++) {
+                endpoints[count++] = chosen[k];
+                endpoints[count++] = v;
+            }
+        }
+    }
 
-            writer.write("  ]\n}");
-            writer.close();
+    // Buffers generated edges and writes them as JSON, formatting full blocks in parallel chunks
+    private static class EdgeWriter implements GraphSource.EdgeConsumer {
+        private final OutputStream out;
+        private final EdgeList block = new EdgeList(CHUNK_EDGES);
+        long written;
 
-        } catch (IOException e) {
-            System.err.println("Error: " + e.getMessage());
+        EdgeWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void edge(int from, int to, int weight) throws IOException {
+            block.add(from, to, weight);
+            if (block.size() == CHUNK_EDGES * BLOCK_CHUNKS) {
+                flush();
+            }
+        }
+
+        void finish() throws IOException {
+            flush();
+            if (written > 0) {
+                write(out, "\n");
+            }
         }
+
+        private void flush() throws IOException {
+            int chunks = (block.size() + CHUNK_EDGES - 1) / CHUNK_EDGES;
+            IntStream indices = IntStream.range(0, chunks);
+            byte[][] formatted = (chunks > 1 ? indices.parallel() : indices).mapToObj(this::format).toArray(byte[][]::new);
+            for (byte[] bytes : formatted) {
+                out.write(bytes);
+            }
+            written += block.size();
+            block.clear();
+        }
+
+        private byte[] format(int chunk) {
+            int start = chunk * CHUNK_EDGES;
+            int end = Math.min(block.size(), start + CHUNK_EDGES);
+            StringBuilder text = new StringBuilder((end - start) * 56);
+            for (int e = start; e < end; e++) {
+                if (written + e > 0) text.append(",\n");
+                text.append("        {\"from\": \"");
+                appendNodeName(text, block.src[e]).append("\", \"to\": \"");
+                appendNodeName(text, block.dest[e]).append("\", \"weight\": ").append(block.weight[e]).append('}');
+            }
+            return text.toString().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private static void write(OutputStream out, CharSequence text) throws IOException {
+        out.write(text.toString().getBytes(StandardCharsets.US_ASCII));
     }
-}
\ No newline at end of file
+}
@@ -1,111 +1,78 @@
 import java.util.*;
 import java.io.*;
-import java.nio.file.*;
 
 
 
-// Class for Union-Find data structure
-class UnionFind {
-    private int[] parent;
-    private int[] rank;
+public class KruskalAlgorithm {
 
-    public UnionFind(int size) {
-        parent = new int[size];
-        rank = new int[size];
-        for (int i = 0; i < size; i++) {
-            parent[i] = i;
-            rank[i] = 0;
-        }
+    // Selectable Kruskal variants; both produce the same MST weight
+    public enum Engine {
+        CLASSIC, // sort every edge, then scan
+        FILTER   // Filter-Kruskal: partition and filter before sorting
     }
 
-    public int find(int x) {
-        if (parent[x] != x) {
-            parent[x] = find(parent[x]);
-        }
-        return parent[x];
+    // Function to find Minimum Spanning Tree using Kruskal's algorithm
+    public static List<Edge> kruskalMST(List<Edge> edges, int vertices) {
+        return kruskalMST(Graph.fromEdges(edges, vertices));
     }
 
-    public void union(int x, int y) {
-        int rootX = find(x);
-        int rootY = find(y);
-
-        if (rootX != rootY) {
-            if (rank[rootX] < rank[rootY]) {
-                parent[rootX] = rootY;
-            } else if (rank[rootX] > rank[rootY]) {
-                parent[rootY] = rootX;
-            } else {
-                parent[rootY] = rootX;
-                rank[rootX]++;
-            }
-        }
+    public static List<Edge> kruskalMST(Graph graph) {
+        return kruskalMST(graph, Engine.CLASSIC);
     }
-}
-
 
-public class KruskalAlgorithm {
-
-    // Function to find Minimum Spanning Tree using Kruskal's algorithm
-    public static List<Edge> kruskalMST(List<Edge> edges, int vertices) {
-        // Convert node names to indices
-        List<Edge> indexedEdges = new ArrayList<>();
-        Map<String, Integer> nodeToIndex = new HashMap<>();
-        int index = 0;
-
-        // Build node to index mapping
-        for (Edge edge : edges) {
-            if (!nodeToIndex.containsKey(edge.from)) {
-                nodeToIndex.put(edge.from, index++);
-            }
-            if (!nodeToIndex.containsKey(edge.to)) {
-                nodeToIndex.put(edge.to, index++);
-            }
+    public static List<Edge> kruskalMST(Graph graph, Engine engine) {
+        // Pre-sorted input gains nothing from filtering
+        if (engine == Engine.FILTER && !graph.edges.isSortedByWeight()) {
+            return FilterKruskal.mst(graph.edges, graph.nodes);
         }
+        return kruskalMST(graph.edges, graph.nodes);
+    }
 
-        // Create edges with indices
-        for (Edge edge : edges) {
-            int srcIndex = nodeToIndex.get(edge.from);
-            int destIndex = nodeToIndex.get(edge.to);
-            indexedEdges.add(new Edge(srcIndex, destIndex, edge.weight));
-        }
+    // Sorts the edge list in place (skipped when it is already in weight order)
+    public static List<Edge> kruskalMST(EdgeList edges, NodeDictionary nodes) {
+        return kruskalMST(edges, nodes, new UnionFind(0), null, new EdgeList());
+    }
 
+    // Runs on the given union-find, which is reset first, sort buffers (null to allocate)
+    // and tree list, which is cleared first and receives the tree by vertex indices
+    static List<Edge> kruskalMST(EdgeList edges, NodeDictionary nodes, UnionFind uf,
+                                 EdgeList.SortBuffers sortBuffers, EdgeList tree) {
+        int vertices = nodes.size();
+        MSTMetrics metrics = MSTMetrics.current();
         // Kruskal's algorithm
-        Collections.sort(indexedEdges);
-        List<Edge> mst = new ArrayList<>();
-        UnionFind uf = new UnionFind(vertices);
+        MSTMetrics.begin(metrics, MSTMetrics.Phase.SORT);
+        edges.sortByWeight(sortBuffers);
+        MSTMetrics.end(metrics, MSTMetrics.Phase.SORT);
+        MSTMetrics.begin(metrics, MSTMetrics.Phase.SOLVE);
+        int[] src = edges.src;
+        int[] dest = edges.dest;
+        int[] weight = edges.weight;
+
+        tree.clear();
+        uf.reset(vertices);
 
         int edgesAdded = 0;
         int i = 0;
 
-        while (edgesAdded < vertices - 1 && i < indexedEdges.size()) {
-            Edge nextEdge = indexedEdges.get(i++);
-            int rootSrc = uf.find(nextEdge.src);
-            int rootDest = uf.find(nextEdge.dest);
+        while (edgesAdded < vertices - 1 && i < edges.size()) {
+            int e = i++;
+            int rootSrc = uf.find(src[e]);
+            int rootDest = uf.find(dest[e]);
 
             if (rootSrc != rootDest) {
-                // Convert back to original node names for output
-                Edge originalEdge = new Edge(
-                        getKeyFromValue(nodeToIndex, nextEdge.src),
-                        getKeyFromValue(nodeToIndex, nextEdge.dest),
-                        nextEdge.weight
-                );
-                mst.add(originalEdge);
+                tree.add(src[e], dest[e], weight[e]);
                 uf.union(rootSrc, rootDest);
                 edgesAdded++;
             }
         }
 
-        return mst;
-    }
-
-    // Helper method to get node name from index
-    private static String getKeyFromValue(Map<String, Integer> map, int value) {
-        for (Map.Entry<String, Integer> entry : map.entrySet()) {
-            if (entry.getValue() == value) {
-                return entry.getKey();
-            }
+        MSTMetrics.end(metrics, MSTMetrics.Phase.SOLVE);
+        if (metrics != null) {
+            metrics.unionFindFinds += 2L * i;
+            metrics.unionFindUnions += edgesAdded;
         }
-        return null;
+        // Keep the indices and look the original names up in the dictionary
+        return tree.toEdges(nodes);
     }
 
     // Utility function to calculate total weight of MST
@@ -113,157 +80,68 @@ public class KruskalAlgorithm {
         return mst.stream().mapToInt(edge -> edge.weight).sum();
     }
 
-    public static List<MSTResult> processGraphsFromFile(String filename) {
-        List<MSTResult> results = new ArrayList<>();
-
+    // Computes the MST of one graph and wraps it in a result
+    public static MSTResult solve(Graph graph, Engine engine) {
+        MSTMetrics metrics = MSTMetrics.enter(graph.metrics);
         try {
-            // Read entire file
-            String fullContent = new String(Files.readAllBytes(Paths.get(filename)))
-                    .replaceAll("\\s+", " ");
-
-            // Locate the "graphs" array
-            int graphsStart = fullContent.indexOf("\"graphs\"");
-            if (graphsStart == -1) {
-                System.err.println("Error: No 'graphs' array found in input file!");
-                return results;
-            }
-
-            int arrayStart = fullContent.indexOf("[", graphsStart);
-            int arrayEnd = findMatchingBracket(fullContent, arrayStart, '[', ']');
-            String graphsArray = fullContent.substring(arrayStart + 1, arrayEnd);
-
-            int pos = 0;
-            while ((pos = graphsArray.indexOf("{", pos)) != -1) {
-                int graphEnd = findMatchingBracket(graphsArray, pos, '{', '}');
-                String graphStr = graphsArray.substring(pos, graphEnd + 1);
-
-                // ✅ Parse graph ID
-                int idStart = graphStr.indexOf("\"id\":") + 5;
-                int idEnd = graphStr.indexOf(",", idStart);
-                if (idEnd == -1) idEnd = graphStr.indexOf("}", idStart);
-                int graphId = Integer.parseInt(graphStr.substring(idStart, idEnd).trim());
-
-                // ✅ Parse nodes
-                int nodesStart = graphStr.indexOf("\"nodes\":") + 8;
-                int nodesEnd = graphStr.indexOf("]", nodesStart);
-                String nodesStr = graphStr.substring(nodesStart, nodesEnd);
-                String[] nodes = extractNodes(nodesStr);
+            List<Edge> mst = kruskalMST(graph, engine);
+            MSTResult result = new MSTResult(graph.id, getMSTWeight(mst), mst);
+            result.strategy = "kruskal-" + engine.name().toLowerCase();
+            result.nodes = graph.nodes;
+            result.countComponents(graph.nodeCount());
+            result.metrics = metrics;
+            return result;
+        } finally {
+            MSTMetrics.exit(metrics);
+        }
+    }
 
-                // ✅ Parse edges (robust)
-                int edgesStart = graphStr.indexOf("\"edges\":") + 8;
-                int edgesEnd = findMatchingBracket(graphStr, edgesStart, '[', ']');
-                String edgesStr = graphStr.substring(edgesStart + 1, edgesEnd);
-                List<Edge> edges = extractEdges(edgesStr);
+    public static List<MSTResult> processGraphsFromFile(String filename) {
+        return processGraphsFromFile(filename, Engine.CLASSIC);
+    }
 
-                System.out.println("Processing Graph " + graphId + " with " + nodes.length + " nodes and " + edges.size() + " edges");
+    public static List<MSTResult> processGraphsFromFile(String filename, Engine engine) {
+        return processGraphsFromFile(filename, engine, MSTCache.shared());
+    }
 
-                List<Edge> mst = kruskalMST(edges, nodes.length);
-                int totalWeight = getMSTWeight(mst);
-                results.add(new MSTResult(graphId, totalWeight, mst));
+    // Graphs already in the cache are not solved again; a null cache always solves
+    public static List<MSTResult> processGraphsFromFile(String filename, Engine engine, MSTCache cache) {
+        List<MSTResult> results = new ArrayList<>();
+        String solverName = "kruskal-" + engine.name().toLowerCase();
+        MSTSolver solver = new MSTSolver(); // scratch buffers shared by all graphs of the file
+
+        try (GraphSource reader = GraphSource.open(filename)) {
+            Graph graph;
+            while ((graph = reader.next()) != null) {
+                if (Log.isEnabled(Log.Level.DEBUG)) {
+                    Log.debug("  → Parsed " + graph.edges.size() + " edges");
+                }
+                if (Log.isEnabled(Log.Level.INFO)) {
+                    Log.info("Processing Graph " + graph.id + " with " + graph.nodeCount() + " nodes and " + graph.edges.size() + " edges");
+                }
 
-                pos = graphEnd + 1;
+                results.add(cache != null
+                        ? cache.solve(graph, solverName, g -> solver.solveKruskal(g, engine))
+                        : solver.solveKruskal(graph, engine));
+            }
+            if (cache != null) {
+                cache.flush();
             }
 
         } catch (Exception e) {
             System.err.println("Error processing file: " + e.getMessage());
             e.printStackTrace();
         }
+        Log.flush();
 
         return results;
     }
 
 
-
-    private static String[] extractNodes(String nodesStr) {
-        List<String> nodes = new ArrayList<>();
-        String[] parts = nodesStr.split(",");
-        for (String part : parts) {
-            String node = part.trim().replace("\"", "");
-            if (!node.isEmpty()) {
-                nodes.add(node);
-            }
-        }
-        return nodes.toArray(new String[0]);
-    }
-
-    private static List<Edge> extractEdges(String edgesStr) {
-        List<Edge> edges = new ArrayList<>();
-
-        // Normalize whitespace and remove trailing brackets or commas
-        String clean = edgesStr.replaceAll("\\s+", " ").trim();
-
-        // ✅ Regex-based parsing (much more reliable)
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
-                "\\{\\s*\"from\"\\s*:\\s*\"(.*?)\"\\s*,\\s*\"to\"\\s*:\\s*\"(.*?)\"\\s*,\\s*\"weight\"\\s*:\\s*(\\d+)\\s*\\}"
-        );
-        java.util.regex.Matcher matcher = pattern.matcher(clean);
-
-        while (matcher.find()) {
-            String from = matcher.group(1);
-            String to = matcher.group(2);
-            int weight = Integer.parseInt(matcher.group(3));
-            edges.add(new Edge(from, to, weight));
-        }
-
-        System.out.println("  → Parsed " + edges.size() + " edges");
-        return edges;
-    }
-
-
-    private static int findMatchingBracket(String str, int start, char open, char close) {
-        int count = 1;
-        for (int i = start + 1; i < str.length(); i++) {
-            char c = str.charAt(i);
-            if (c == open) count++;
-            else if (c == close) count--;
-
-            if (count == 0) return i;
-        }
-        return str.length();
-    }
-
-
     // Write results to JSON file
     public static void writeResultsToFile(List<MSTResult> results, String filename) {
         try {
-            FileWriter writer = new FileWriter(filename);
-
-            writer.write("{\n");
-            writer.write("  \"results\": [\n");
-
-            for (int i = 0; i < results.size(); i++) {
-                MSTResult result = results.get(i);
-
-                writer.write("    {\n");
-                writer.write("      \"graphId\": " + result.graphId + ",\n");
-                writer.write("      \"totalWeight\": " + result.totalWeight + ",\n");
-                writer.write("      \"mstEdges\": [\n");
-
-                for (int j = 0; j < result.mstEdges.size(); j++) {
-                    Edge edge = result.mstEdges.get(j);
-                    writer.write("        {\n");
-                    writer.write("          \"from\": \"" + edge.from + "\",\n");
-                    writer.write("          \"to\": \"" + edge.to + "\",\n");
-                    writer.write("          \"weight\": " + edge.weight + "\n");
-                    writer.write("        }");
-                    if (j < result.mstEdges.size() - 1) {
-                        writer.write(",");
-                    }
-                    writer.write("\n");
-                }
-
-                writer.write("      ]\n");
-                writer.write("    }");
-                if (i < results.size() - 1) {
-                    writer.write(",");
-                }
-                writer.write("\n");
-            }
-
-            writer.write("  ]\n");
-            writer.write("}\n");
-
-            writer.close();
+            ResultWriter.writeAll(results, filename, false);
             System.out.println("Results successfully written to: " + filename);
 
         } catch (IOException e) {
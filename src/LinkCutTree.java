@@ -0,0 +1,197 @@
+import java.util.Arrays;
+
+// Link-cut tree (Sleator-Tarjan) over a forest of weighted nodes, in flat arrays.
+// Every operation is O(log n) amortized: link and cut trees, test connectivity, and
+// find the heaviest node on the path between two nodes. Each preferred path is a
+// splay tree; left/right are splay children and parent is either the splay parent
+// or, at a splay root, the path-parent pointer into the next path up.
+class LinkCutTree {
+    private static final int NIL = -1;
+
+    private int[] left, right, parent;
+    private boolean[] reversed;
+    private int[] value;
+    private int[] max; // node with the largest value in the splay subtree
+    private int size;
+    private int[] stack = new int[64];
+
+    public LinkCutTree(int capacity) {
+        capacity = Math.max(capacity, 1);
+        left = new int[capacity];
+        right = new int[capacity];
+        parent = new int[capacity];
+        reversed = new boolean[capacity];
+        value = new int[capacity];
+        max = new int[capacity];
+    }
+
+    // Adds an isolated node and returns its id
+    public int addNode(int nodeValue) {
+        if (size == left.length) {
+            int capacity = size * 2;
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            reversed = Arrays.copyOf(reversed, capacity);
+            value = Arrays.copyOf(value, capacity);
+            max = Arrays.copyOf(max, capacity);
+        }
+        int x = size++;
+        left[x] = right[x] = parent[x] = NIL;
+        value[x] = nodeValue;
+        max[x] = x;
+        return x;
+    }
+
+    public int value(int x) {
+        return value[x];
+    }
+
+    public void setValue(int x, int nodeValue) {
+        access(x);
+        value[x] = nodeValue;
+        update(x);
+    }
+
+    public int findRoot(int x) {
+        access(x);
+        push(x);
+        while (left[x] != NIL) {
+            x = left[x];
+            push(x);
+        }
+        splay(x);
+        return x;
+    }
+
+    public boolean connected(int x, int y) {
+        return x == y || findRoot(x) == findRoot(y);
+    }
+
+    // Joins the trees of x and y with an edge x - y; they must not be connected yet
+    public void link(int x, int y) {
+        makeRoot(x);
+        parent[x] = y;
+    }
+
+    // Removes the tree edge x - y
+    public void cut(int x, int y) {
+        makeRoot(x);
+        access(y);
+        // x is now the only node on the path above y
+        left[y] = NIL;
+        parent[x] = NIL;
+        update(y);
+    }
+
+    // Node with the largest value on the path from x to y; they must be connected
+    public int pathMax(int x, int y) {
+        makeRoot(x);
+        access(y);
+        return max[y];
+    }
+
+    private void makeRoot(int x) {
+        access(x);
+        reversed[x] ^= true;
+    }
+
+    // Makes the root-to-x path preferred and leaves x at the root of its splay tree
+    private void access(int x) {
+        int last = NIL;
+        for (int y = x; y != NIL; y = parent[y]) {
+            splay(y);
+            right[y] = last;
+            update(y);
+            last = y;
+        }
+        splay(x);
+    }
+
+    private boolean isSplayRoot(int x) {
+        int p = parent[x];
+        return p == NIL || (left[p] != x && right[p] != x);
+    }
+
+    private void splay(int x) {
+        // Push pending reversals down from the splay root before rotating
+        int depth = 0;
+        for (int y = x; ; y = parent[y]) {
+            if (depth == stack.length) {
+                stack = Arrays.copyOf(stack, depth * 2);
+            }
+            stack[depth++] = y;
+            if (isSplayRoot(y)) {
+                break;
+            }
+        }
+        while (depth > 0) {
+            push(stack[--depth]);
+        }
+
+        while (!isSplayRoot(x)) {
+            int p = parent[x];
+            if (!isSplayRoot(p)) {
+                int g = parent[p];
+                boolean zigZig = (left[g] == p) == (left[p] == x);
+                rotate(zigZig ? p : x);
+            }
+            rotate(x);
+        }
+    }
+
+    private void rotate(int x) {
+        int p = parent[x];
+        int g = parent[p];
+        if (!isSplayRoot(p)) {
+            if (left[g] == p) {
+                left[g] = x;
+            } else {
+                right[g] = x;
+            }
+        }
+        parent[x] = g;
+        if (left[p] == x) {
+            left[p] = right[x];
+            if (right[x] != NIL) {
+                parent[right[x]] = p;
+            }
+            right[x] = p;
+        } else {
+            right[p] = left[x];
+            if (left[x] != NIL) {
+                parent[left[x]] = p;
+            }
+            left[x] = p;
+        }
+        parent[p] = x;
+        update(p);
+        update(x);
+    }
+
+    private void push(int x) {
+        if (reversed[x]) {
+            int l = left[x];
+            left[x] = right[x];
+            right[x] = l;
+            if (left[x] != NIL) {
+                reversed[left[x]] ^= true;
+            }
+            if (right[x] != NIL) {
+                reversed[right[x]] ^= true;
+            }
+            reversed[x] = false;
+        }
+    }
+
+    private void update(int x) {
+        int best = x;
+        if (left[x] != NIL && value[max[left[x]]] > value[best]) {
+            best = max[left[x]];
+        }
+        if (right[x] != NIL && value[max[right[x]]] > value[best]) {
+            best = max[right[x]];
+        }
+        max[x] = best;
+    }
+}
@@ -0,0 +1,138 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+// Leveled progress output for the processing loops.
+//
+// Messages below the current level cost one volatile read; callers that build the text
+// guard with isEnabled() so disabled messages are not even concatenated. Enabled messages
+// go onto a bounded queue that a daemon thread drains in batches, writing each batch to
+// System.out with a single print, so solver threads never wait on console I/O unless the
+// queue is full. Call flush() before printing to System.out directly, to keep the order.
+//
+// The level comes from -Dmst.log=off|error|warn|info|debug (default info) or setLevel().
+class Log {
+    public enum Level { OFF, ERROR, WARN, INFO, DEBUG }
+
+    private static final int QUEUE_CAPACITY = 1 << 14;
+    private static final int BATCH_SIZE = 1024;
+
+    private static volatile Level level = parse(System.getProperty("mst.log"));
+    private static final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private static Thread writer;
+
+    private Log() {
+    }
+
+    public static Level level() {
+        return level;
+    }
+
+    // Sets the level and returns the previous one, so a caller can restore it
+    public static Level setLevel(Level newLevel) {
+        Level previous = level;
+        level = newLevel;
+        return previous;
+    }
+
+    public static boolean isEnabled(Level messageLevel) {
+        return messageLevel != Level.OFF && messageLevel.ordinal() <= level.ordinal();
+    }
+
+    public static void info(String message) {
+        log(Level.INFO, message);
+    }
+
+    public static void debug(String message) {
+        log(Level.DEBUG, message);
+    }
+
+    public static void warn(String message) {
+        log(Level.WARN, message);
+    }
+
+    public static void log(Level messageLevel, String message) {
+        if (isEnabled(messageLevel)) {
+            enqueue(message);
+        }
+    }
+
+    // Blocks until every message logged so far has been written
+    public static void flush() {
+        if (writer == null) {
+            return; // nothing was ever logged
+        }
+        CountDownLatch written = new CountDownLatch(1);
+        enqueue(written);
+        try {
+            written.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void enqueue(Object item) {
+        startWriter();
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static synchronized void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        writer = new Thread(Log::drain, "mst-log");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "mst-log-flush"));
+    }
+
+    private static void drain() {
+        List<Object> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder text = new StringBuilder();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+
+            for (Object item : batch) {
+                if (item instanceof CountDownLatch) {
+                    // Everything queued before the marker goes out before it is released
+                    write(text);
+                    ((CountDownLatch) item).countDown();
+                } else {
+                    text.append(item).append(System.lineSeparator());
+                }
+            }
+            write(text);
+            batch.clear();
+        }
+    }
+
+    private static void write(StringBuilder text) {
+        if (text.length() > 0) {
+            System.out.print(text);
+            System.out.flush();
+            text.setLength(0);
+        }
+    }
+
+    private static Level parse(String name) {
+        if (name != null) {
+            for (Level candidate : Level.values()) {
+                if (candidate.name().equalsIgnoreCase(name)) {
+                    return candidate;
+                }
+            }
+        }
+        return Level.INFO;
+    }
+}
@@ -0,0 +1,369 @@
+import java.util.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.function.Function;
+
+// Content-addressed cache of MST results.
+//
+// A graph is keyed by a 128-bit hash of its content: the set of node names and the
+// multiset of edges, each edge taken as an unordered pair of names plus its weight, so
+// neither node indices nor the order of nodes and edges affect the key. The name of the
+// solver is mixed in, so Kruskal and Prim results are kept apart. Hashing reads the
+// dictionary's name bytes and the edge arrays directly; a hit skips the algorithm and
+// only maps the cached tree's names back to the graph's node indices.
+//
+// Entries live in memory with LRU eviction. An optional segment file keeps them across
+// runs: it is loaded (and compacted) when the cache is opened, new entries are appended
+// to it, and flush() or close() writes them out.
+//
+// -Dmst.cache=<entries> and/or -Dmst.cache.file=<path> enable a shared cache that the
+// processGraphsFromFile methods use. Safe for use from several threads.
+public class MSTCache implements Closeable {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final int MAGIC = 0x4D535443; // "MSTC"
+    private static final int VERSION = 1;
+
+    private static MSTCache shared;
+    private static boolean sharedOpened;
+
+    // Identity of a graph's content for one solver
+    public static final class Key {
+        final long high, low;
+
+        Key(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other).high == high && ((Key) other).low == low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(high ^ low);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%016x%016x", high, low);
+        }
+    }
+
+    // A cached tree, by node names so it does not hold on to the graph it came from
+    private static class Entry {
+        final String strategy;
+        final int totalWeight;
+        final String[] from, to;
+        final int[] weight;
+
+        Entry(String strategy, int totalWeight, String[] from, String[] to, int[] weight) {
+            this.strategy = strategy;
+            this.totalWeight = totalWeight;
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+        }
+    }
+
+    private final LinkedHashMap<Key, Entry> entries;
+    private final Path segment;
+    private DataOutputStream segmentOut;
+    private long hits;
+    private long misses;
+
+    // In-memory cache of up to capacity results
+    public MSTCache(int capacity) {
+        this.entries = lru(capacity);
+        this.segment = null;
+    }
+
+    // Cache backed by a segment file, which is created if it does not exist. A file that is
+    // not a segment of this version is refused with an IOException and left untouched
+    public MSTCache(int capacity, Path segment) throws IOException {
+        this.entries = lru(capacity);
+        this.segment = segment;
+        load();
+        compact();
+    }
+
+    private static LinkedHashMap<Key, Entry> lru(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be positive, got " + capacity);
+        }
+        return new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // The cache configured by system properties, or null when caching is off
+    public static synchronized MSTCache shared() {
+        if (!sharedOpened) {
+            sharedOpened = true;
+            String capacity = System.getProperty("mst.cache");
+            String file = System.getProperty("mst.cache.file");
+            if (capacity != null || file != null) {
+                int entries = capacity != null ? Integer.parseInt(capacity) : DEFAULT_CAPACITY;
+                try {
+                    shared = file != null ? new MSTCache(entries, Paths.get(file)) : new MSTCache(entries);
+                    Runtime.getRuntime().addShutdownHook(new Thread(MSTCache::closeShared, "mst-cache-close"));
+                } catch (IOException e) {
+                    System.err.println("Could not open MST cache " + file + ", caching in memory only: " + e.getMessage());
+                    shared = new MSTCache(entries);
+                }
+            }
+        }
+        return shared;
+    }
+
+    private static synchronized void closeShared() {
+        try {
+            shared.close();
+        } catch (IOException e) {
+            System.err.println("Error writing MST cache: " + e.getMessage());
+        }
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Returns the cached result for the graph, or computes, caches and returns it
+    public MSTResult solve(Graph graph, String solver, Function<Graph, MSTResult> compute) {
+        Key key = key(graph, solver);
+        MSTResult result = get(key, graph);
+        if (result == null) {
+            result = compute.apply(graph);
+            put(key, result);
+        }
+        return result;
+    }
+
+    // The cached result rebuilt against the graph's own nodes, or null on a miss. Only a
+    // result that was actually rebuilt counts as a hit; a colliding entry is a miss.
+    public MSTResult get(Key key, Graph graph) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        MSTResult result = entry != null ? rebuild(entry, graph) : null;
+        synchronized (this) {
+            if (result != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+        return result;
+    }
+
+    private static MSTResult rebuild(Entry entry, Graph graph) {
+        NodeDictionary nodes = graph.nodes;
+        List<Edge> mst = new ArrayList<>(entry.weight.length);
+        for (int i = 0; i < entry.weight.length; i++) {
+            int src = nodes.indexOf(entry.from[i]);
+            int dest = nodes.indexOf(entry.to[i]);
+            if (src < 0 || dest < 0) {
+                return null; // hash collision; the names do not belong to this graph
+            }
+            mst.add(new Edge(src, dest, entry.weight[i], nodes));
+        }
+        MSTResult result = new MSTResult(graph.id, entry.totalWeight, mst);
+        result.strategy = entry.strategy;
+        result.nodes = nodes;
+        result.countComponents(graph.nodeCount());
+        result.metrics = graph.metrics;
+        return result;
+    }
+
+    public void put(Key key, MSTResult result) {
+        int size = result.mstEdges.size();
+        String[] from = new String[size];
+        String[] to = new String[size];
+        int[] weight = new int[size];
+        for (int i = 0; i < size; i++) {
+            Edge edge = result.mstEdges.get(i);
+            if (edge.from == null || edge.to == null) {
+                return; // only named trees can be mapped back onto another copy of the graph
+            }
+            from[i] = edge.from;
+            to[i] = edge.to;
+            weight[i] = edge.weight;
+        }
+        Entry entry = new Entry(result.strategy, result.totalWeight, from, to, weight);
+
+        synchronized (this) {
+            entries.put(key, entry);
+            if (segmentOut != null) {
+                try {
+                    write(segmentOut, key, entry);
+                } catch (IOException e) {
+                    System.err.println("Error writing MST cache, continuing in memory only: " + e.getMessage());
+                    closeSegment();
+                }
+            }
+        }
+    }
+
+    // Writes appended entries to the segment file
+    public synchronized void flush() throws IOException {
+        if (segmentOut != null) {
+            segmentOut.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (segmentOut != null) {
+            segmentOut.close();
+            segmentOut = null;
+        }
+    }
+
+    // Key of the graph's content for the named solver
+    public static Key key(Graph graph, String solver) {
+        NodeDictionary nodes = graph.nodes;
+        int vertices = nodes.size();
+        byte[] utf8 = nodes.utf8Bytes();
+        long[] nameHash = new long[vertices];
+
+        byte[] solverBytes = solver.getBytes(StandardCharsets.UTF_8);
+        long solverHash = hashBytes(solverBytes, 0, solverBytes.length);
+        long high = mix(vertices ^ solverHash);
+        long low = mix(graph.edges.size() + solverHash);
+
+        // Sums of per-item hashes do not depend on the order of the items
+        for (int i = 0; i < vertices; i++) {
+            long hash = hashBytes(utf8, nodes.nameStart(i), nodes.nameEnd(i));
+            nameHash[i] = hash;
+            high += mix(hash ^ 0x243F6A8885A308D3L);
+            low += mix(hash ^ 0x13198A2E03707344L);
+        }
+
+        EdgeList edges = graph.edges;
+        for (int e = 0; e < edges.size(); e++) {
+            long a = nameHash[edges.src[e]];
+            long b = nameHash[edges.dest[e]];
+            long first = Math.min(a, b);
+            long second = Math.max(a, b);
+            long weight = edges.weight[e];
+            high += mix(mix(mix(first ^ 0xA4093822299F31D0L) + second) + weight);
+            low += mix(mix(mix(first ^ 0x082EFA98EC4E6C89L) + second) + weight);
+        }
+        return new Key(mix(high), mix(low));
+    }
+
+    // FNV-1a over the bytes, finished with a mix so short names spread over all 64 bits
+    private static long hashBytes(byte[] bytes, int start, int end) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ (bytes[i] & 0xFF)) * 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Reads every complete entry of the segment. A truncated or malformed entry ends the
+    // segment: it and anything after it are dropped, and compact() rewrites the file without them
+    private void load() throws IOException {
+        if (!Files.exists(segment)) {
+            return;
+        }
+        long fileSize = Files.size(segment);
+        if (fileSize == 0) {
+            return; // created but never written
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment), 1 << 16))) {
+            if (fileSize < 8 || in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(segment + " is not an MST cache segment of this version");
+            }
+            while (true) {
+                Key key = new Key(in.readLong(), in.readLong());
+                String strategy = in.readUTF();
+                int totalWeight = in.readInt();
+                int size = in.readInt();
+                // Every tree edge takes at least 8 bytes: two name lengths and the weight
+                if (size < 0 || size > fileSize / 8) {
+                    System.err.println("Error in MST cache " + segment + ": malformed entry, dropping the rest of the file");
+                    return;
+                }
+                String[] from = new String[size];
+                String[] to = new String[size];
+                int[] weight = new int[size];
+                for (int i = 0; i < size; i++) {
+                    from[i] = in.readUTF();
+                    to[i] = in.readUTF();
+                    weight[i] = in.readInt();
+                }
+                entries.put(key, new Entry(strategy, totalWeight, from, to, weight));
+            }
+        } catch (EOFException e) {
+            // end of the segment, or a truncated last entry
+        } catch (UTFDataFormatException e) {
+            System.err.println("Error in MST cache " + segment + ": malformed entry, dropping the rest of the file");
+        }
+    }
+
+    // Rewrites the segment with only the entries that survived loading, then appends to it
+    private void compact() throws IOException {
+        Path parent = segment.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, "mst-cache-", ".tmp");
+        try (DataOutputStream out = open(temp)) {
+            for (Map.Entry<Key, Entry> entry : entries.entrySet()) {
+                write(out, entry.getKey(), entry.getValue());
+            }
+        }
+        Files.move(temp, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        segmentOut = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(segment, StandardOpenOption.APPEND), 1 << 16));
+    }
+
+    private static DataOutputStream open(Path file) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        return out;
+    }
+
+    private static void write(DataOutputStream out, Key key, Entry entry) throws IOException {
+        out.writeLong(key.high);
+        out.writeLong(key.low);
+        out.writeUTF(entry.strategy != null ? entry.strategy : "");
+        out.writeInt(entry.totalWeight);
+        out.writeInt(entry.weight.length);
+        for (int i = 0; i < entry.weight.length; i++) {
+            out.writeUTF(entry.from[i]);
+            out.writeUTF(entry.to[i]);
+            out.writeInt(entry.weight[i]);
+        }
+    }
+
+    private void closeSegment() {
+        try {
+            segmentOut.close();
+        } catch (IOException ignored) {
+            // already failing; the entries stay in memory
+        }
+        segmentOut = null;
+    }
+}
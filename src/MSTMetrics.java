@@ -0,0 +1,172 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+// Per-graph instrumentation: wall time and allocated bytes for each processing phase,
+// plus union-find and heap operation counts.
+//
+// Enabled with -Dmst.metrics=csv or -Dmst.metrics=json (or setFormat). When disabled no
+// metrics objects exist: every hook is a static call on a null reference that returns
+// at once, and the algorithms count operations in locals that are only published at the end.
+//
+// A graph's metrics travel with it: the reader creates them, solve() makes them current
+// for the solving thread and hands them to the MSTResult, and ResultWriter records the
+// write phase and exports one record per result next to the output file.
+class MSTMetrics {
+    public enum Phase {
+        PARSE,  // reading the graph, excluding INDEX
+        INDEX,  // name -> index mapping of the nodes and edge endpoints read
+        BUILD,  // adjacency structures (CSR, matrix)
+        SORT,   // edge sorting
+        SOLVE,  // union-find scan or heap loop, up to the tree as vertex indices
+        NAMES,  // turning the tree into Edge objects carrying the node names
+        WRITE   // encoding the result
+    }
+
+    private static volatile String format = System.getProperty("mst.metrics");
+    private static final ThreadLocal<MSTMetrics> CURRENT = new ThreadLocal<>();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    public int graphId;
+    public int vertices;
+    public int edges;
+    public String strategy;
+    public final long[] phaseNanos = new long[Phase.values().length];
+    public final long[] phaseBytes = new long[Phase.values().length];
+    public long unionFindFinds;
+    public long unionFindUnions;
+    public long heapPushes;
+    public long heapPops;
+    public long heapDecreaseKeys;
+
+    private final long[] startNanos = new long[Phase.values().length];
+    private final long[] startBytes = new long[Phase.values().length];
+
+    private MSTMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return format != null;
+    }
+
+    // "csv", "json", or null to disable
+    public static void setFormat(String newFormat) {
+        format = newFormat;
+    }
+
+    static String format() {
+        return format;
+    }
+
+    // New metrics, or null when disabled
+    public static MSTMetrics create() {
+        return format != null ? new MSTMetrics() : null;
+    }
+
+    // Attaches new metrics to a graph that is about to be read and starts its PARSE phase
+    public static void beginParse(Graph graph) {
+        graph.metrics = create();
+        begin(graph.metrics, Phase.PARSE);
+    }
+
+    public static void endParse(Graph graph) {
+        MSTMetrics metrics = graph.metrics;
+        if (metrics != null) {
+            end(metrics, Phase.PARSE);
+            // INDEX runs nested inside PARSE; keep the two apart
+            metrics.phaseNanos[Phase.PARSE.ordinal()] -= metrics.phaseNanos[Phase.INDEX.ordinal()];
+            metrics.phaseBytes[Phase.PARSE.ordinal()] -= metrics.phaseBytes[Phase.INDEX.ordinal()];
+            metrics.graphId = graph.id;
+            metrics.vertices = graph.nodeCount();
+            metrics.edges = graph.edges.size();
+        }
+    }
+
+    // Makes the metrics current for this thread until exit(); returns them
+    public static MSTMetrics enter(MSTMetrics metrics) {
+        if (metrics != null) {
+            CURRENT.set(metrics);
+        }
+        return metrics;
+    }
+
+    public static void exit(MSTMetrics metrics) {
+        if (metrics != null) {
+            CURRENT.remove();
+        }
+    }
+
+    // Metrics of the graph being solved on this thread, or null
+    public static MSTMetrics current() {
+        return format != null ? CURRENT.get() : null;
+    }
+
+    public static void begin(MSTMetrics metrics, Phase phase) {
+        if (metrics != null) {
+            metrics.startBytes[phase.ordinal()] = allocatedBytes();
+            metrics.startNanos[phase.ordinal()] = System.nanoTime();
+        }
+    }
+
+    public static void end(MSTMetrics metrics, Phase phase) {
+        if (metrics != null) {
+            long now = System.nanoTime();
+            int i = phase.ordinal();
+            metrics.phaseNanos[i] += now - metrics.startNanos[i];
+            long bytes = allocatedBytes();
+            if (bytes >= 0) {
+                metrics.phaseBytes[i] += bytes - metrics.startBytes[i];
+            }
+        }
+    }
+
+    // Bytes allocated by the current thread so far, or -1 if the JVM cannot tell
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            // Called around every name lookup while INDEX is measured, so use the cheap form
+            return ((com.sun.management.ThreadMXBean) THREADS).getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    static String csvHeader() {
+        StringBuilder header = new StringBuilder("graphId,strategy,vertices,edges");
+        for (Phase phase : Phase.values()) {
+            String name = phase.name().toLowerCase(Locale.ROOT);
+            header.append(',').append(name).append("_ns,").append(name).append("_bytes");
+        }
+        return header.append(",uf_finds,uf_unions,heap_pushes,heap_pops,heap_decrease_keys").toString();
+    }
+
+    String toCsv() {
+        StringBuilder row = new StringBuilder();
+        row.append(graphId).append(',').append(strategy != null ? strategy : "")
+                .append(',').append(vertices).append(',').append(edges);
+        for (int i = 0; i < phaseNanos.length; i++) {
+            row.append(',').append(phaseNanos[i]).append(',').append(phaseBytes[i]);
+        }
+        return row.append(',').append(unionFindFinds).append(',').append(unionFindUnions)
+                .append(',').append(heapPushes).append(',').append(heapPops)
+                .append(',').append(heapDecreaseKeys).toString();
+    }
+
+    // One JSON object on a single line
+    String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"graphId\":").append(graphId)
+                .append(",\"strategy\":").append(strategy != null ? "\"" + strategy + "\"" : "null")
+                .append(",\"vertices\":").append(vertices)
+                .append(",\"edges\":").append(edges)
+                .append(",\"phases\":{");
+        for (Phase phase : Phase.values()) {
+            int i = phase.ordinal();
+            json.append(i > 0 ? "," : "").append('"').append(phase.name().toLowerCase(Locale.ROOT))
+                    .append("\":{\"ns\":").append(phaseNanos[i]).append(",\"bytes\":").append(phaseBytes[i]).append('}');
+        }
+        return json.append("},\"unionFind\":{\"finds\":").append(unionFindFinds)
+                .append(",\"unions\":").append(unionFindUnions)
+                .append("},\"heap\":{\"pushes\":").append(heapPushes)
+                .append(",\"pops\":").append(heapPops)
+                .append(",\"decreaseKeys\":").append(heapDecreaseKeys).append("}}").toString();
+    }
+}
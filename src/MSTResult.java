@@ -1,13 +1,48 @@
+import java.util.Arrays;
 import java.util.List;
 
 class MSTResult {
     public int graphId;
     public int totalWeight;
     public List<Edge> mstEdges;
+    public String strategy; // algorithm variant that produced the result, for benchmarking
+    public NodeDictionary nodes; // dictionary the edge indices refer to, if any; lets the writer copy name bytes
+    public int components = 1;      // connected components of the graph; above 1 the edges form a spanning forest
+    public int[] componentWeights;  // forest weight per component, in order of each component's first node
+    public MSTMetrics metrics;      // null unless metrics are enabled
 
     public MSTResult(int graphId, int totalWeight, List<Edge> mstEdges) {
         this.graphId = graphId;
         this.totalWeight = totalWeight;
         this.mstEdges = mstEdges;
     }
+
+    // Fills in the component fields from the forest's own edges (at most vertices - 1 of
+    // them), so spotting a disconnected graph needs no extra pass over the graph's edges.
+    // Isolated nodes count as components of weight 0.
+    public void countComponents(int vertices) {
+        countComponents(vertices, new UnionFind(0), new int[vertices]);
+    }
+
+    // Same, using a caller's union-find (reset here) and a scratch array of at least vertices entries
+    void countComponents(int vertices, UnionFind uf, int[] componentOf) {
+        uf.reset(vertices);
+        for (Edge edge : mstEdges) {
+            uf.union(edge.src, edge.dest);
+        }
+        Arrays.fill(componentOf, 0, vertices, -1);
+        int count = 0;
+        for (int v = 0; v < vertices; v++) {
+            int root = uf.find(v);
+            if (componentOf[root] < 0) {
+                componentOf[root] = count++;
+            }
+        }
+        int[] weights = new int[count];
+        for (Edge edge : mstEdges) {
+            weights[componentOf[uf.find(edge.src)]] += edge.weight;
+        }
+        components = count;
+        componentWeights = weights;
+    }
 }
\ No newline at end of file
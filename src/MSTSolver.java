@@ -0,0 +1,104 @@
+import java.util.*;
+
+// Reusable working memory for solving many graphs in a row.
+//
+// The static entry points in KruskalAlgorithm and PrimAlgorithm allocate their scratch
+// per call: union-find arrays, sort buffers, the CSR adjacency, the heap, key/parent/inMST
+// and the dense matrix. A solver owns all of these and grows them only when a graph is
+// larger than every graph before it; each run resets just the entries it is about to use,
+// so a small graph after a large one costs O(its own size). Once warmed up on graphs of
+// similar size, solving allocates only the output: the MST edges and the MSTResult.
+//
+// Results are identical to the static entry points. Not thread-safe; use one solver per
+// thread, for example the one returned by local().
+public class MSTSolver {
+    private static final ThreadLocal<MSTSolver> LOCAL = ThreadLocal.withInitial(MSTSolver::new);
+
+    private final UnionFind unionFind = new UnionFind(0);
+    private final EdgeList.SortBuffers sortBuffers = new EdgeList.SortBuffers();
+    private final EdgeList tree = new EdgeList();
+    private final CsrGraph csr = new CsrGraph();
+    private IndexedDaryHeap heap = new IndexedDaryHeap(0);
+    private int[] key = new int[0];
+    private int[] parent = new int[0];
+    private boolean[] inMST = new boolean[0];
+    private int[] matrix = new int[0];
+
+    // The calling thread's solver
+    public static MSTSolver local() {
+        return LOCAL.get();
+    }
+
+    // Sorts the edge list in place, like KruskalAlgorithm.kruskalMST
+    public List<Edge> kruskalMST(EdgeList edges, NodeDictionary nodes) {
+        return KruskalAlgorithm.kruskalMST(edges, nodes, unionFind, sortBuffers, tree);
+    }
+
+    public List<Edge> primMST(EdgeList edges, NodeDictionary nodes, PrimAlgorithm.Mode mode) {
+        int vertices = nodes.size();
+        mode = PrimAlgorithm.resolveMode(mode, vertices, edges.size());
+        ensureVertices(vertices);
+        if (mode == PrimAlgorithm.Mode.DENSE) {
+            if (matrix.length < vertices * vertices) {
+                matrix = new int[vertices * vertices];
+            }
+            return PrimAlgorithm.densePrimMST(edges, nodes, matrix, key, parent, inMST);
+        }
+
+        MSTMetrics metrics = MSTMetrics.current();
+        MSTMetrics.begin(metrics, MSTMetrics.Phase.BUILD);
+        csr.rebuild(edges, vertices);
+        MSTMetrics.end(metrics, MSTMetrics.Phase.BUILD);
+        heap.clear(); // a previous run that threw may have left entries behind
+        heap.ensureCapacity(vertices);
+        return PrimAlgorithm.primMST(csr, nodes, heap, key, parent, inMST);
+    }
+
+    // Same result as KruskalAlgorithm.solve; FILTER keeps Filter-Kruskal's own buffers
+    public MSTResult solveKruskal(Graph graph, KruskalAlgorithm.Engine engine) {
+        MSTMetrics metrics = MSTMetrics.enter(graph.metrics);
+        try {
+            List<Edge> mst = engine == KruskalAlgorithm.Engine.FILTER
+                    ? KruskalAlgorithm.kruskalMST(graph, engine)
+                    : kruskalMST(graph.edges, graph.nodes);
+            return result(graph, mst, "kruskal-" + engine.name().toLowerCase(), metrics);
+        } finally {
+            MSTMetrics.exit(metrics);
+        }
+    }
+
+    // Same result as PrimAlgorithm.solve
+    public MSTResult solvePrim(Graph graph, PrimAlgorithm.Mode mode) {
+        mode = PrimAlgorithm.resolveMode(mode, graph.nodeCount(), graph.edges.size());
+        MSTMetrics metrics = MSTMetrics.enter(graph.metrics);
+        try {
+            List<Edge> mst = primMST(graph.edges, graph.nodes, mode);
+            return result(graph, mst, "prim-" + mode.name().toLowerCase(), metrics);
+        } finally {
+            MSTMetrics.exit(metrics);
+        }
+    }
+
+    private MSTResult result(Graph graph, List<Edge> mst, String strategy, MSTMetrics metrics) {
+        int totalWeight = 0;
+        for (Edge edge : mst) {
+            totalWeight += edge.weight;
+        }
+        MSTResult result = new MSTResult(graph.id, totalWeight, mst);
+        result.strategy = strategy;
+        result.nodes = graph.nodes;
+        ensureVertices(graph.nodeCount());
+        result.countComponents(graph.nodeCount(), unionFind, parent);
+        result.metrics = metrics;
+        return result;
+    }
+
+    private void ensureVertices(int vertices) {
+        if (key.length < vertices) {
+            int capacity = Math.max(vertices, key.length + (key.length >> 1));
+            key = new int[capacity];
+            parent = new int[capacity];
+            inMST = new boolean[capacity];
+        }
+    }
+}
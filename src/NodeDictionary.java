@@ -0,0 +1,212 @@
+import java.util.Arrays;
+
+// Two-way mapping between the node names of one graph and dense indices 0..size-1.
+// Names are interned in a SymbolTable, which a reader shares across the graphs of a
+// file; this class only maps symbols to the graph's local indices. While the graph is
+// being read it is the table's current owner and keeps each local index in the symbol's
+// own record, so an endpoint costs the one probe that finds its symbol. Once a newer
+// graph takes over the table, or indexOf is called, lookups go through a small
+// open-addressing table of this graph's own, built from the symbols of its nodes and
+// sized by its node count rather than by the symbol ids, which keep growing over a file.
+// index -> name is an array read, and the writer can copy a name's UTF-8 bytes out
+// without re-encoding.
+class NodeDictionary {
+    private final SymbolTable symbols;
+    private final int owner;
+    private String[] names = new String[16];
+    private int[] symbolOf = new int[16];   // symbol of each node, -1 for anonymous ones
+    private int[] slotSymbol;               // symbol + 1, 0 when the slot is empty; null until needed
+    private int[] slotLocal;                // local index of the symbol in the same slot
+    private int size;
+
+    // Name bytes of this graph, captured as nodes are added so readers on other threads never
+    // look at a table the parser is still growing
+    private byte[] utf8 = new byte[0];
+    private int[] nameStart = new int[16];
+    private int[] nameEnd = new int[16];
+
+    // Dictionary with its own symbol table
+    public NodeDictionary() {
+        this(new SymbolTable());
+    }
+
+    public NodeDictionary(SymbolTable symbols) {
+        this.symbols = symbols;
+        this.owner = symbols.newOwner();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String name(int index) {
+        return names[index];
+    }
+
+    // Backing array of names, valid up to size(); for hot loops that must not go through a call
+    public String[] names() {
+        return names;
+    }
+
+    // Returns the index of the name, or -1 if it is not in the dictionary
+    public int indexOf(String name) {
+        return local(symbols.find(name));
+    }
+
+    public int indexOf(byte[] key, int offset, int length) {
+        return local(symbols.find(key, offset, length));
+    }
+
+    // Returns the index of the name, adding it if it was not seen before
+    public int add(String name) {
+        return add(symbols.intern(name));
+    }
+
+    // Same as add(String), for a name given as UTF-8 bytes; a String is only created for new symbols
+    public int add(byte[] key, int offset, int length) {
+        return add(symbols.intern(key, offset, length));
+    }
+
+    // Makes room for this many more nodes, so adding them never grows the arrays or the symbol table
+    public void ensureCapacity(int additional) {
+        int capacity = size + additional;
+        if (capacity > names.length) {
+            resize(capacity);
+        }
+        symbols.ensureCapacity(additional);
+    }
+
+    // Appends a node that has no symbol, so it can never collide with a real name. It is
+    // called "#" + index for display, indexOf never finds it and it has no UTF-8 bytes.
+    public int addAnonymous() {
+        ensureRoom();
+        names[size] = "#" + size;
+        symbolOf[size] = -1;
+        nameStart[size] = -1;
+        nameEnd[size] = -1;
+        return size++;
+    }
+
+    // UTF-8 bytes of a name are utf8Bytes()[nameStart(i) .. nameEnd(i)); both are -1 for anonymous nodes
+    byte[] utf8Bytes() {
+        return utf8;
+    }
+
+    int nameStart(int index) {
+        return nameStart[index];
+    }
+
+    int nameEnd(int index) {
+        return nameEnd[index];
+    }
+
+    private int local(int symbol) {
+        if (symbol < 0) {
+            return -1;
+        }
+        ensureTable();
+        int mask = slotSymbol.length - 1;
+        for (int slot = slot(symbol, mask); slotSymbol[slot] != 0; slot = (slot + 1) & mask) {
+            if (slotSymbol[slot] == symbol + 1) {
+                return slotLocal[slot];
+            }
+        }
+        return -1;
+    }
+
+    private int add(int symbol) {
+        boolean current = symbols.currentOwner() == owner;
+        if (current) {
+            int local = symbols.local(symbol, owner);
+            if (local >= 0) {
+                return local;
+            }
+        } else {
+            int local = local(symbol);
+            if (local >= 0) {
+                return local;
+            }
+        }
+        ensureRoom();
+        names[size] = symbols.name(symbol);
+        symbolOf[size] = symbol;
+        utf8 = symbols.utf8Bytes();
+        nameStart[size] = symbols.nameStart(symbol);
+        nameEnd[size] = symbols.nameEnd(symbol);
+        if (current) {
+            symbols.claim(symbol, owner, size);
+        }
+        if (slotSymbol != null) {
+            insert(symbol, size);
+        }
+        return size++;
+    }
+
+    // Builds the graph's own symbol -> index table on first use; indexOf may come from a solver thread
+    private synchronized void ensureTable() {
+        if (slotSymbol != null) {
+            return;
+        }
+        int capacity = 32;
+        while (size * 2 >= capacity) {
+            capacity *= 2;
+        }
+        slotSymbol = new int[capacity];
+        slotLocal = new int[capacity];
+        for (int i = 0; i < size; i++) {
+            if (symbolOf[i] >= 0) {
+                insert(symbolOf[i], i);
+            }
+        }
+    }
+
+    private void insert(int symbol, int local) {
+        if ((local + 1) * 2 > slotSymbol.length) {
+            rehash();
+        }
+        int mask = slotSymbol.length - 1;
+        int slot = slot(symbol, mask);
+        while (slotSymbol[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slotSymbol[slot] = symbol + 1;
+        slotLocal[slot] = local;
+    }
+
+    private static int slot(int symbol, int mask) {
+        int hash = symbol * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    // Doubles the table so it stays at most half full
+    private void rehash() {
+        int[] oldSymbol = slotSymbol;
+        int[] oldLocal = slotLocal;
+        slotSymbol = new int[oldSymbol.length * 2];
+        slotLocal = new int[oldSymbol.length * 2];
+        int mask = slotSymbol.length - 1;
+        for (int i = 0; i < oldSymbol.length; i++) {
+            if (oldSymbol[i] != 0) {
+                int slot = slot(oldSymbol[i] - 1, mask);
+                while (slotSymbol[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slotSymbol[slot] = oldSymbol[i];
+                slotLocal[slot] = oldLocal[i];
+            }
+        }
+    }
+
+    private void ensureRoom() {
+        if (size == names.length) {
+            resize(size * 2);
+        }
+    }
+
+    private void resize(int capacity) {
+        names = Arrays.copyOf(names, capacity);
+        symbolOf = Arrays.copyOf(symbolOf, capacity);
+        nameStart = Arrays.copyOf(nameStart, capacity);
+        nameEnd = Arrays.copyOf(nameEnd, capacity);
+    }
+}
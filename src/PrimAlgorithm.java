@@ -1,274 +1,316 @@
 import java.util.*;
 import java.io.*;
-import java.nio.file.*;
 
 
-// Class to represent a node in the priority queue for Prim's algorithm
-class PrimNode implements Comparable<PrimNode> {
-    int vertex;
-    int key; // Minimum weight to connect to MST
-    int parent; // Parent vertex in MST
+public class PrimAlgorithm {
 
-    public PrimNode(int vertex, int key, int parent) {
-        this.vertex = vertex;
-        this.key = key;
-        this.parent = parent;
+    // HEAP runs in O(E log V) and suits sparse graphs, DENSE is an O(V^2) array scan
+    // over an adjacency matrix; AUTO picks one from the graph's density
+    public enum Mode {
+        AUTO, HEAP, DENSE
     }
 
-    @Override
-    public int compareTo(PrimNode other) {
-        return this.key - other.key;
+    // Dense mode is used from this E / V^2 ratio up, for graphs whose matrix stays small.
+    // Above DENSE_MAX_VERTICES even an explicit DENSE request runs the heap instead: the
+    // matrix would pass 64 MB, and from 46341 vertices V * V does not fit in an int.
+    private static final double DENSE_THRESHOLD = 0.1;
+    static final int DENSE_MAX_VERTICES = 4096;
+
+    // Function to find Minimum Spanning Tree using Prim's algorithm
+    public static List<Edge> primMST(List<Edge> edges, int vertices) {
+        return primMST(Graph.fromEdges(edges, vertices));
     }
-}
 
+    public static List<Edge> primMST(Graph graph) {
+        return primMST(graph, Mode.AUTO);
+    }
 
+    public static List<Edge> primMST(Graph graph, Mode mode) {
+        mode = resolveMode(mode, graph.nodeCount(), graph.edges.size());
+        if (mode == Mode.DENSE) {
+            return densePrimMST(graph.edges, graph.nodes);
+        }
+        return primMST(graph.edges, graph.nodes);
+    }
 
-public class PrimAlgorithm {
+    // The mode that actually runs: AUTO is chosen by density, DENSE only fits small graphs
+    static Mode resolveMode(Mode mode, int vertices, int edges) {
+        if (mode == Mode.AUTO) {
+            return chooseMode(vertices, edges);
+        }
+        if (mode == Mode.DENSE && vertices > DENSE_MAX_VERTICES) {
+            return Mode.HEAP;
+        }
+        return mode;
+    }
 
-    // Function to find Minimum Spanning Tree using Prim's algorithm
-    public static List<Edge> primMST(List<Edge> edges, int vertices) {
-        // Convert node names to indices and build adjacency list
-        Map<String, Integer> nodeToIndex = new HashMap<>();
-        Map<Integer, String> indexToNode = new HashMap<>();
-        int index = 0;
-
-        // Build node to index mapping
-        for (Edge edge : edges) {
-            if (!nodeToIndex.containsKey(edge.from)) {
-                nodeToIndex.put(edge.from, index);
-                indexToNode.put(index, edge.from);
-                index++;
+    // Resolves AUTO for a graph of the given size
+    public static Mode chooseMode(int vertices, int edges) {
+        if (vertices > 0 && vertices <= DENSE_MAX_VERTICES
+                && (double) edges / ((double) vertices * vertices) >= DENSE_THRESHOLD) {
+            return Mode.DENSE;
+        }
+        return Mode.HEAP;
+    }
+
+    public static List<Edge> primMST(EdgeList edges, NodeDictionary nodes) {
+        return primMST(edges, nodes, IndexedDaryHeap.DEFAULT_ARITY);
+    }
+
+    // heapArity is the branching factor d of the d-ary heap
+    public static List<Edge> primMST(EdgeList edges, NodeDictionary nodes, int heapArity) {
+        MSTMetrics metrics = MSTMetrics.current();
+        MSTMetrics.begin(metrics, MSTMetrics.Phase.BUILD);
+        CsrGraph graph = CsrGraph.fromEdges(edges, nodes.size());
+        MSTMetrics.end(metrics, MSTMetrics.Phase.BUILD);
+        return primMST(graph, nodes, heapArity);
+    }
+
+    public static List<Edge> primMST(CsrGraph graph, NodeDictionary nodes, int heapArity) {
+        int vertices = graph.vertices;
+        if (vertices == 0) {
+            return new ArrayList<>();
+        }
+        // Indexed heap with decrease-key: one entry per vertex, no stale entries
+        return primMST(graph, nodes, new IndexedDaryHeap(vertices, heapArity),
+                new int[vertices], new int[vertices], new boolean[vertices]);
+    }
+
+    // Runs with caller-owned scratch: an empty heap and arrays with room for every vertex.
+    // Only the first V entries of the arrays are reset and used.
+    static List<Edge> primMST(CsrGraph graph, NodeDictionary nodes, IndexedDaryHeap heap,
+                              int[] key, int[] parent, boolean[] inMST) {
+        int vertices = graph.vertices;
+        if (vertices == 0) {
+            return new ArrayList<>();
+        }
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        int[] weights = graph.weights;
+
+        // Prim's algorithm
+        Arrays.fill(inMST, 0, vertices, false);
+        Arrays.fill(key, 0, vertices, Integer.MAX_VALUE);
+        Arrays.fill(parent, 0, vertices, -1);
+
+        MSTMetrics metrics = MSTMetrics.current();
+        MSTMetrics.begin(metrics, MSTMetrics.Phase.SOLVE);
+        long pushes = 0, pops = 0, decreaseKeys = 0;
+
+        // Grow a tree from every vertex not reached yet, giving a spanning forest
+        for (int root = 0; root < vertices; root++) {
+            if (inMST[root]) {
+                continue;
             }
-            if (!nodeToIndex.containsKey(edge.to)) {
-                nodeToIndex.put(edge.to, index);
-                indexToNode.put(index, edge.to);
-                index++;
+            key[root] = 0;
+            heap.insert(root, 0);
+            pushes++;
+
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                pops++;
+                inMST[u] = true;
+
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    int v = targets[i];
+                    int weight = weights[i];
+
+                    // parent is -1 until v is first reached, so even a weight of MAX_VALUE
+                    // (the key of unreached vertices) connects it
+                    if (!inMST[v] && (weight < key[v] || parent[v] == -1)) {
+                        key[v] = weight;
+                        parent[v] = u;
+                        if (heap.contains(v)) {
+                            heap.decreaseKey(v, weight);
+                            decreaseKeys++;
+                        } else {
+                            heap.insert(v, weight);
+                            pushes++;
+                        }
+                    }
+                }
             }
         }
 
-        // Build adjacency list
-        List<List<int[]>> adj = new ArrayList<>();
-        for (int i = 0; i < vertices; i++) {
-            adj.add(new ArrayList<>());
+        MSTMetrics.end(metrics, MSTMetrics.Phase.SOLVE);
+        List<Edge> mst = buildTree(parent, key, vertices, nodes);
+        if (metrics != null) {
+            metrics.heapPushes += pushes;
+            metrics.heapPops += pops;
+            metrics.heapDecreaseKeys += decreaseKeys;
         }
+        return mst;
+    }
 
-        for (Edge edge : edges) {
-            int u = nodeToIndex.get(edge.from);
-            int v = nodeToIndex.get(edge.to);
-            int weight = edge.weight;
+    // O(V^2) Prim over an adjacency matrix: no heap and no per-edge work after the matrix is built
+    public static List<Edge> densePrimMST(EdgeList edges, NodeDictionary nodes) {
+        int vertices = nodes.size();
+        if (vertices == 0) {
+            return new ArrayList<>();
+        }
+        if (vertices > DENSE_MAX_VERTICES) {
+            return primMST(edges, nodes); // the matrix would not fit
+        }
+        return densePrimMST(edges, nodes, new int[vertices * vertices],
+                new int[vertices], new int[vertices], new boolean[vertices]);
+    }
 
-            adj.get(u).add(new int[]{v, weight});
-            adj.get(v).add(new int[]{u, weight});
+    // Runs with a caller-owned matrix of at least V * V entries and arrays with room for every vertex;
+    // V must not exceed DENSE_MAX_VERTICES
+    static List<Edge> densePrimMST(EdgeList edges, NodeDictionary nodes, int[] matrix,
+                                   int[] key, int[] parent, boolean[] inMST) {
+        int vertices = nodes.size();
+        if (vertices == 0) {
+            return new ArrayList<>();
         }
 
-        // Prim's algorithm
-        boolean[] inMST = new boolean[vertices];
-        int[] parent = new int[vertices];
-        int[] key = new int[vertices];
+        MSTMetrics metrics = MSTMetrics.current();
+        MSTMetrics.begin(metrics, MSTMetrics.Phase.BUILD);
+
+        // Adjacency matrix keeping the lightest of any parallel edges. MAX_VALUE also marks a
+        // missing edge, so edges of that weight are additionally recorded in a bitmap, which
+        // is only allocated when there are any
+        Arrays.fill(matrix, 0, vertices * vertices, Integer.MAX_VALUE);
+        long[] maxWeightEdges = null;
+        for (int e = 0; e < edges.size(); e++) {
+            int u = edges.src[e];
+            int v = edges.dest[e];
+            int weight = edges.weight[e];
+            if (u != v && weight < matrix[u * vertices + v]) {
+                matrix[u * vertices + v] = weight;
+                matrix[v * vertices + u] = weight;
+            } else if (u != v && weight == Integer.MAX_VALUE) {
+                if (maxWeightEdges == null) {
+                    maxWeightEdges = new long[(vertices * vertices + 63) >>> 6];
+                }
+                int forward = u * vertices + v;
+                int backward = v * vertices + u;
+                maxWeightEdges[forward >>> 6] |= 1L << forward;
+                maxWeightEdges[backward >>> 6] |= 1L << backward;
+            }
+        }
 
-        Arrays.fill(key, Integer.MAX_VALUE);
-        Arrays.fill(parent, -1);
+        MSTMetrics.end(metrics, MSTMetrics.Phase.BUILD);
+        MSTMetrics.begin(metrics, MSTMetrics.Phase.SOLVE);
 
-        PriorityQueue<PrimNode> pq = new PriorityQueue<>();
+        Arrays.fill(inMST, 0, vertices, false);
+        Arrays.fill(key, 0, vertices, Integer.MAX_VALUE);
+        Arrays.fill(parent, 0, vertices, -1);
         key[0] = 0;
-        pq.offer(new PrimNode(0, 0, -1));
 
-        while (!pq.isEmpty()) {
-            PrimNode node = pq.poll();
-            int u = node.vertex;
-
-            if (inMST[u]) continue;
+        for (int count = 0; count < vertices; count++) {
+            // Pick the closest vertex not yet in the tree; on a tie at MAX_VALUE, one that
+            // was reached beats one that was not, so a tree is finished before the next starts
+            int u = -1;
+            for (int v = 0; v < vertices; v++) {
+                if (!inMST[v] && (u == -1 || key[v] < key[u]
+                        || (key[v] == key[u] && parent[u] == -1 && parent[v] != -1))) {
+                    u = v;
+                }
+            }
+            if (parent[u] == -1) {
+                key[u] = 0; // unreachable from the trees so far: u starts a new one
+            }
             inMST[u] = true;
 
-            for (int[] neighbor : adj.get(u)) {
-                int v = neighbor[0];
-                int weight = neighbor[1];
-
-                if (!inMST[v] && weight < key[v]) {
+            int row = u * vertices;
+            for (int v = 0; v < vertices; v++) {
+                int weight = matrix[row + v];
+                if (!inMST[v] && (weight < key[v] || (parent[v] == -1 && weight == Integer.MAX_VALUE
+                        && maxWeightEdges != null && (maxWeightEdges[(row + v) >>> 6] & (1L << (row + v))) != 0))) {
                     key[v] = weight;
                     parent[v] = u;
-                    pq.offer(new PrimNode(v, key[v], u));
                 }
             }
         }
 
-        // Build MST edges from parent array
+        MSTMetrics.end(metrics, MSTMetrics.Phase.SOLVE);
+        return buildTree(parent, key, vertices, nodes);
+    }
+
+    // Build MST edges from parent array, timed as the NAMES phase
+    private static List<Edge> buildTree(int[] parent, int[] key, int vertices, NodeDictionary nodes) {
+        MSTMetrics metrics = MSTMetrics.current();
+        MSTMetrics.begin(metrics, MSTMetrics.Phase.NAMES);
         List<Edge> mst = new ArrayList<>();
         for (int i = 1; i < vertices; i++) {
             if (parent[i] != -1) {
-                String fromNode = indexToNode.get(parent[i]);
-                String toNode = indexToNode.get(i);
-                mst.add(new Edge(fromNode, toNode, key[i]));
+                mst.add(new Edge(parent[i], i, key[i], nodes));
             }
         }
-
+        MSTMetrics.end(metrics, MSTMetrics.Phase.NAMES);
         return mst;
     }
 
-    // Helper method to get node name from index (same as Kruskal)
-    private static String getKeyFromValue(Map<String, Integer> map, int value) {
-        for (Map.Entry<String, Integer> entry : map.entrySet()) {
-            if (entry.getValue() == value) {
-                return entry.getKey();
-            }
-        }
-        return null;
-    }
-
     // Utility function to calculate total weight of MST (same as Kruskal)
     public static int getMSTWeight(List<Edge> mst) {
         return mst.stream().mapToInt(edge -> edge.weight).sum();
     }
 
-    // File processing methods (same structure as Kruskal)
-    public static List<MSTResult> processGraphsFromFile(String filename) {
-        List<MSTResult> results = new ArrayList<>();
-
+    // Computes the MST of one graph and wraps it in a result
+    public static MSTResult solve(Graph graph, Mode mode) {
+        mode = resolveMode(mode, graph.nodeCount(), graph.edges.size());
+        MSTMetrics metrics = MSTMetrics.enter(graph.metrics);
         try {
-            // Read entire file
-            String fullContent = new String(Files.readAllBytes(Paths.get(filename)))
-                    .replaceAll("\\s+", " ");
-
-            // Locate the "graphs" array
-            int graphsStart = fullContent.indexOf("\"graphs\"");
-            if (graphsStart == -1) {
-                System.err.println("Error: No 'graphs' array found in input file!");
-                return results;
-            }
-
-            int arrayStart = fullContent.indexOf("[", graphsStart);
-            int arrayEnd = findMatchingBracket(fullContent, arrayStart, '[', ']');
-            String graphsArray = fullContent.substring(arrayStart + 1, arrayEnd);
-
-            int pos = 0;
-            while ((pos = graphsArray.indexOf("{", pos)) != -1) {
-                int graphEnd = findMatchingBracket(graphsArray, pos, '{', '}');
-                String graphStr = graphsArray.substring(pos, graphEnd + 1);
-
-                // Parse graph ID
-                int idStart = graphStr.indexOf("\"id\":") + 5;
-                int idEnd = graphStr.indexOf(",", idStart);
-                if (idEnd == -1) idEnd = graphStr.indexOf("}", idStart);
-                int graphId = Integer.parseInt(graphStr.substring(idStart, idEnd).trim());
+            List<Edge> mst = primMST(graph, mode);
+            MSTResult result = new MSTResult(graph.id, getMSTWeight(mst), mst);
+            result.strategy = "prim-" + mode.name().toLowerCase();
+            result.nodes = graph.nodes;
+            result.countComponents(graph.nodeCount());
+            result.metrics = metrics;
+            return result;
+        } finally {
+            MSTMetrics.exit(metrics);
+        }
+    }
 
-                // Parse nodes
-                int nodesStart = graphStr.indexOf("\"nodes\":") + 8;
-                int nodesEnd = graphStr.indexOf("]", nodesStart);
-                String nodesStr = graphStr.substring(nodesStart, nodesEnd);
-                String[] nodes = extractNodes(nodesStr);
+    // File processing methods (same structure as Kruskal)
+    public static List<MSTResult> processGraphsFromFile(String filename) {
+        return processGraphsFromFile(filename, Mode.AUTO);
+    }
 
-                // Parse edges
-                int edgesStart = graphStr.indexOf("\"edges\":") + 8;
-                int edgesEnd = findMatchingBracket(graphStr, edgesStart, '[', ']');
-                String edgesStr = graphStr.substring(edgesStart + 1, edgesEnd);
-                List<Edge> edges = extractEdges(edgesStr);
+    public static List<MSTResult> processGraphsFromFile(String filename, Mode mode) {
+        return processGraphsFromFile(filename, mode, MSTCache.shared());
+    }
 
-                System.out.println("Processing Graph " + graphId + " with " + nodes.length + " nodes and " + edges.size() + " edges");
+    // Graphs already in the cache are not solved again; a null cache always solves
+    public static List<MSTResult> processGraphsFromFile(String filename, Mode mode, MSTCache cache) {
+        List<MSTResult> results = new ArrayList<>();
+        String solverName = "prim-" + mode.name().toLowerCase();
+        MSTSolver solver = new MSTSolver(); // scratch buffers shared by all graphs of the file
+
+        try (GraphSource reader = GraphSource.open(filename)) {
+            Graph graph;
+            while ((graph = reader.next()) != null) {
+                if (Log.isEnabled(Log.Level.DEBUG)) {
+                    Log.debug("  → Parsed " + graph.edges.size() + " edges");
+                }
+                if (Log.isEnabled(Log.Level.INFO)) {
+                    Log.info("Processing Graph " + graph.id + " with " + graph.nodeCount() + " nodes and " + graph.edges.size() + " edges");
+                }
 
                 // Use Prim's algorithm instead of Kruskal's
-                List<Edge> mst = primMST(edges, nodes.length);
-                int totalWeight = getMSTWeight(mst);
-                results.add(new MSTResult(graphId, totalWeight, mst));
-
-                pos = graphEnd + 1;
+                results.add(cache != null
+                        ? cache.solve(graph, solverName, g -> solver.solvePrim(g, mode))
+                        : solver.solvePrim(graph, mode));
+            }
+            if (cache != null) {
+                cache.flush();
             }
 
         } catch (Exception e) {
             System.err.println("Error processing file: " + e.getMessage());
             e.printStackTrace();
         }
+        Log.flush();
 
         return results;
     }
 
-    private static String[] extractNodes(String nodesStr) {
-        List<String> nodes = new ArrayList<>();
-        String[] parts = nodesStr.split(",");
-        for (String part : parts) {
-            String node = part.trim().replace("\"", "");
-            if (!node.isEmpty()) {
-                nodes.add(node);
-            }
-        }
-        return nodes.toArray(new String[0]);
-    }
-
-    private static List<Edge> extractEdges(String edgesStr) {
-        List<Edge> edges = new ArrayList<>();
-
-        // Normalize whitespace and remove trailing brackets or commas
-        String clean = edgesStr.replaceAll("\\s+", " ").trim();
-
-        // Regex-based parsing
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
-                "\\{\\s*\"from\"\\s*:\\s*\"(.*?)\"\\s*,\\s*\"to\"\\s*:\\s*\"(.*?)\"\\s*,\\s*\"weight\"\\s*:\\s*(\\d+)\\s*\\}"
-        );
-        java.util.regex.Matcher matcher = pattern.matcher(clean);
-
-        while (matcher.find()) {
-            String from = matcher.group(1);
-            String to = matcher.group(2);
-            int weight = Integer.parseInt(matcher.group(3));
-            edges.add(new Edge(from, to, weight));
-        }
-
-        System.out.println("  → Parsed " + edges.size() + " edges");
-        return edges;
-    }
-
-    private static int findMatchingBracket(String str, int start, char open, char close) {
-        int count = 1;
-        for (int i = start + 1; i < str.length(); i++) {
-            char c = str.charAt(i);
-            if (c == open) count++;
-            else if (c == close) count--;
-
-            if (count == 0) return i;
-        }
-        return str.length();
-    }
-
     // Write results to JSON file (same as Kruskal)
     public static void writeResultsToFile(List<MSTResult> results, String filename) {
         try {
-            FileWriter writer = new FileWriter(filename);
-
-            writer.write("{\n");
-            writer.write("  \"results\": [\n");
-
-            for (int i = 0; i < results.size(); i++) {
-                MSTResult result = results.get(i);
-
-                writer.write("    {\n");
-                writer.write("      \"graphId\": " + result.graphId + ",\n");
-                writer.write("      \"totalWeight\": " + result.totalWeight + ",\n");
-                writer.write("      \"mstEdges\": [\n");
-
-                for (int j = 0; j < result.mstEdges.size(); j++) {
-                    Edge edge = result.mstEdges.get(j);
-                    writer.write("        {\n");
-                    writer.write("          \"from\": \"" + edge.from + "\",\n");
-                    writer.write("          \"to\": \"" + edge.to + "\",\n");
-                    writer.write("          \"weight\": " + edge.weight + "\n");
-                    writer.write("        }");
-                    if (j < result.mstEdges.size() - 1) {
-                        writer.write(",");
-                    }
-                    writer.write("\n");
-                }
-
-                writer.write("      ]\n");
-                writer.write("    }");
-                if (i < results.size() - 1) {
-                    writer.write(",");
-                }
-                writer.write("\n");
-            }
-
-            writer.write("  ]\n");
-            writer.write("}\n");
-
-            writer.close();
+            ResultWriter.writeAll(results, filename, false);
             System.out.println("✓ Results successfully written to: " + filename);
 
         } catch (IOException e) {
@@ -0,0 +1,376 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.List;
+
+// Writes MST results to a {"results": [...]} JSON file one at a time, as they are
+// produced, so the complete result list never has to be held in memory.
+// Text is encoded straight into one reusable byte array that is flushed to the channel
+// when full; no Strings are built per field. The fixed JSON fragments are encoded once,
+// and they and the dictionary's UTF-8 name bytes are copied in with System.arraycopy;
+// only names that need escaping go byte by byte. Edges go out in blocks: a first pass
+// looks up every name range of the block and touches its first byte, so the scattered
+// dictionary reads overlap instead of each stalling the encoder in turn.
+// Compact mode puts everything on one line.
+// With metrics enabled, each result's metrics record goes to a file next to the output
+// (<output>.metrics.csv or <output>.metrics.jsonl), in the same order as the results.
+class ResultWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 18;
+    private static final int MAX_NUMBER_BYTES = 11; // "-2147483648"
+    private static final int SHORT_NAME = 32;
+    private static final int BLOCK = 256; // edges per lookup pass
+
+    // Fixed fragments, each as {pretty, compact}
+    private static final byte[][] OPEN = fragment("{\n  \"results\": [\n", "{\"results\":[");
+    private static final byte[][] NEXT = fragment(",\n", ",");
+    private static final byte[][] GRAPH_ID = fragment("    {\n      \"graphId\": ", "{\"graphId\":");
+    private static final byte[][] TOTAL_WEIGHT = fragment(",\n      \"totalWeight\": ", ",\"totalWeight\":");
+    private static final byte[][] COMPONENTS = fragment(",\n      \"components\": ", ",\"components\":");
+    private static final byte[][] COMPONENT_WEIGHTS = fragment(",\n      \"componentWeights\": [", ",\"componentWeights\":[");
+    private static final byte[][] LIST_NEXT = fragment(", ", ",");
+    private static final byte[][] LIST_END = fragment("]", "]");
+    private static final byte[][] EDGES = fragment(",\n      \"mstEdges\": [\n", ",\"mstEdges\":[");
+    private static final byte[][] FROM = fragment("        {\n          \"from\": ", "{\"from\":");
+    private static final byte[][] TO = fragment(",\n          \"to\": ", ",\"to\":");
+    private static final byte[][] WEIGHT = fragment(",\n          \"weight\": ", ",\"weight\":");
+    private static final byte[][] EDGE_END = fragment("\n        }", "}");
+    private static final byte[][] LAST_LINE = fragment("\n", "");
+    private static final byte[][] RESULT_END = fragment("      ]\n    }", "]}");
+    private static final byte[][] CLOSE = fragment("  ]\n}\n", "]}\n");
+
+    private final WritableByteChannel channel;
+    private final boolean compact;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    // {fromStart, fromEnd, toStart, toEnd} per edge of the current block; start -1 means
+    // the name is not in the dictionary's byte arena and is encoded from the String
+    private final int[] ranges = new int[4 * BLOCK];
+    private int touched; // keeps the first-byte reads of locate() from being optimized away
+    private int count;
+    private Writer metricsOut;
+    private boolean metricsJson;
+
+    public ResultWriter(String filename) throws IOException {
+        this(filename, false);
+    }
+
+    public ResultWriter(String filename, boolean compact) throws IOException {
+        this(FileChannel.open(Paths.get(filename),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), compact);
+        String format = MSTMetrics.format();
+        if (format != null) {
+            try {
+                metricsJson = format.equalsIgnoreCase("json");
+                metricsOut = Files.newBufferedWriter(Paths.get(filename + (metricsJson ? ".metrics.jsonl" : ".metrics.csv")));
+                if (!metricsJson) {
+                    metricsOut.write(MSTMetrics.csvHeader());
+                    metricsOut.write('\n');
+                }
+            } catch (IOException | RuntimeException e) {
+                // The caller never gets the writer, so nobody else would close these
+                if (metricsOut != null) {
+                    try {
+                        metricsOut.close();
+                    } catch (IOException suppressed) {
+                        e.addSuppressed(suppressed);
+                    }
+                }
+                try {
+                    channel.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+        }
+    }
+
+    public ResultWriter(WritableByteChannel channel, boolean compact) throws IOException {
+        this.channel = channel;
+        this.compact = compact;
+        text(OPEN);
+    }
+
+    // Writes a whole result list to a file
+    public static void writeAll(List<MSTResult> results, String filename, boolean compact) throws IOException {
+        try (ResultWriter writer = new ResultWriter(filename, compact)) {
+            for (MSTResult result : results) {
+                writer.write(result);
+            }
+        }
+    }
+
+    public void write(MSTResult result) throws IOException {
+        MSTMetrics metrics = result.metrics;
+        MSTMetrics.begin(metrics, MSTMetrics.Phase.WRITE);
+        encode(result);
+        MSTMetrics.end(metrics, MSTMetrics.Phase.WRITE);
+        if (metricsOut != null && metrics != null) {
+            metrics.strategy = result.strategy;
+            metricsOut.write(metricsJson ? metrics.toJson() : metrics.toCsv());
+            metricsOut.write('\n');
+        }
+    }
+
+    private void encode(MSTResult result) throws IOException {
+        if (count++ > 0) {
+            text(NEXT);
+        }
+        text(GRAPH_ID);
+        number(result.graphId);
+        text(TOTAL_WEIGHT);
+        number(result.totalWeight);
+        if (result.components > 1 && result.componentWeights != null) {
+            // Only disconnected graphs carry these, so spanning-tree output keeps its layout
+            text(COMPONENTS);
+            number(result.components);
+            text(COMPONENT_WEIGHTS);
+            for (int c = 0; c < result.componentWeights.length; c++) {
+                if (c > 0) {
+                    text(LIST_NEXT);
+                }
+                number(result.componentWeights[c]);
+            }
+            text(LIST_END);
+        }
+        text(EDGES);
+
+        List<Edge> edges = result.mstEdges;
+        NodeDictionary nodes = result.nodes;
+        byte[] bytes = nodes == null ? null : nodes.utf8Bytes();
+        int[] r = ranges;
+        for (int block = 0; block < edges.size(); block += BLOCK) {
+            int blockEnd = Math.min(edges.size(), block + BLOCK);
+            locate(edges, nodes, block, blockEnd);
+            for (int j = block, k = 0; j < blockEnd; j++, k += 4) {
+                Edge edge = edges.get(j);
+                if (j > 0) {
+                    text(NEXT);
+                }
+                text(FROM);
+                name(bytes, r[k], r[k + 1], edge.from);
+                text(TO);
+                name(bytes, r[k + 2], r[k + 3], edge.to);
+                text(WEIGHT);
+                number(edge.weight);
+                text(EDGE_END);
+            }
+        }
+        if (!edges.isEmpty()) {
+            text(LAST_LINE);
+        }
+
+        text(RESULT_END);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (count > 0) {
+                text(LAST_LINE);
+            }
+            text(CLOSE);
+            flush();
+        } finally {
+            channel.close();
+            if (metricsOut != null) {
+                metricsOut.close();
+            }
+        }
+    }
+
+    private static byte[][] fragment(String pretty, String compactForm) {
+        return new byte[][]{pretty.getBytes(StandardCharsets.US_ASCII), compactForm.getBytes(StandardCharsets.US_ASCII)};
+    }
+
+    // Writes the pretty or the compact form of a fixed fragment
+    private void text(byte[][] fragment) throws IOException {
+        byte[] bytes = fragment[compact ? 1 : 0];
+        put(bytes, 0, bytes.length);
+    }
+
+    private void number(int value) throws IOException {
+        if (BUFFER_SIZE - position < MAX_NUMBER_BYTES) {
+            flush();
+        }
+        long v = value;
+        if (v < 0) {
+            buffer[position++] = '-';
+            v = -v;
+        }
+        int digits = 1;
+        for (long rest = v / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        position += digits;
+        int i = position;
+        do {
+            buffer[--i] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v > 0);
+    }
+
+    // Copies a node name out of the dictionary when the edge refers to it; the bytes are
+    // already UTF-8, so only the JSON escapes are added
+    // Fills ranges for edges [from, to). The loop is kept short so that the CPU can have
+    // many of its independent cache misses in flight at once
+    private void locate(List<Edge> edges, NodeDictionary nodes, int from, int to) {
+        int[] r = ranges;
+        if (nodes == null) {
+            for (int k = 0; k < 4 * (to - from); k += 2) {
+                r[k] = -1;
+            }
+            return;
+        }
+        byte[] bytes = nodes.utf8Bytes();
+        int size = nodes.size();
+        int sum = 0;
+        for (int j = from, k = 0; j < to; j++, k += 4) {
+            Edge edge = edges.get(j);
+            sum += locate(nodes, bytes, size, edge.src, edge.from, r, k);
+            sum += locate(nodes, bytes, size, edge.dest, edge.to, r, k + 2);
+        }
+        touched += sum;
+    }
+
+    private static int locate(NodeDictionary nodes, byte[] bytes, int size, int index, String name, int[] r, int k) {
+        int start;
+        if (index < 0 || index >= size || nodes.name(index) != name || (start = nodes.nameStart(index)) < 0) {
+            r[k] = -1;
+            return 0;
+        }
+        int end = nodes.nameEnd(index);
+        r[k] = start;
+        r[k + 1] = end;
+        return start < end ? bytes[start] : 0;
+    }
+
+    private void name(byte[] bytes, int start, int end, String name) throws IOException {
+        if (start < 0) {
+            string(name);
+            return;
+        }
+        int length = end - start;
+        if (BUFFER_SIZE - position < length + 2) {
+            flush();
+        }
+        if (length < SHORT_NAME && !needsEscaping(bytes, start, end)) {
+            // Most names are a few bytes long, where a loop beats System.arraycopy's call overhead
+            byte[] out = buffer;
+            int p = position;
+            out[p++] = '"';
+            for (int i = start; i < end; i++) {
+                out[p++] = bytes[i];
+            }
+            out[p++] = '"';
+            position = p;
+            return;
+        }
+        if (!needsEscaping(bytes, start, end)) {
+            put((byte) '"');
+            put(bytes, start, length);
+            put((byte) '"');
+            return;
+        }
+        put((byte) '"');
+        for (int i = start; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '"' || b == '\\') {
+                put((byte) '\\');
+                put(b);
+            } else if (b >= 0 && b < 0x20) {
+                put((byte) '\\');
+                put((byte) 'u');
+                put((byte) '0');
+                put((byte) '0');
+                put((byte) Character.forDigit(b >> 4, 16));
+                put((byte) Character.forDigit(b & 0xF, 16));
+            } else {
+                put(b);
+            }
+        }
+        put((byte) '"');
+    }
+
+    // Quoted JSON string, UTF-8 encoded with the required escapes
+    private void string(String s) throws IOException {
+        put((byte) '"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                put((byte) '\\');
+                put((byte) c);
+            } else if (c < 0x20) {
+                put((byte) '\\');
+                put((byte) 'u');
+                put((byte) '0');
+                put((byte) '0');
+                put((byte) Character.forDigit(c >> 4, 16));
+                put((byte) Character.forDigit(c & 0xF, 16));
+            } else if (c < 0x80) {
+                put((byte) c);
+            } else {
+                int codePoint = s.codePointAt(i);
+                if (Character.isSupplementaryCodePoint(codePoint)) {
+                    i++;
+                    put((byte) (0xF0 | (codePoint >> 18)));
+                    put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                } else if (codePoint >= 0x800) {
+                    put((byte) (0xE0 | (codePoint >> 12)));
+                } else {
+                    put((byte) (0xC0 | (codePoint >> 6)));
+                }
+                if (codePoint >= 0x800) {
+                    put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                }
+                put((byte) (0x80 | (codePoint & 0x3F)));
+            }
+        }
+        put((byte) '"');
+    }
+
+    // True if the UTF-8 bytes contain a quote, a backslash or a control character
+    private static boolean needsEscaping(byte[] bytes, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '"' || b == '\\' || (b >= 0 && b < 0x20)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void put(byte b) throws IOException {
+        if (position == BUFFER_SIZE) {
+            flush();
+        }
+        buffer[position++] = b;
+    }
+
+    private void put(byte[] bytes, int offset, int length) throws IOException {
+        while (length > BUFFER_SIZE - position) {
+            int room = BUFFER_SIZE - position;
+            System.arraycopy(bytes, offset, buffer, position, room);
+            position += room;
+            offset += room;
+            length -= room;
+            flush();
+        }
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    private void flush() throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, position);
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        position = 0;
+    }
+}
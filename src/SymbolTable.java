@@ -0,0 +1,250 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Interns node names into dense int ids for a whole batch of graphs, so a name that
+// appears in many graphs is hashed, copied and turned into a String only once.
+// Name bytes live back to back in one primitive UTF-8 arena.
+// Names in the generator's base-26 scheme ("A".."Z", "AA", ...) skip hashing entirely:
+// the letters are decoded to the generator's index, which addresses a direct table.
+// Each symbol also carries the local index it has in the graph currently being read
+// (see NodeDictionary), so resolving an endpoint is one probe here and no second lookup.
+// A symbol's record holds its name range, its local index and the first eight bytes of
+// the name, so looking up a name of up to eight bytes touches one slot and one record and
+// never the arena. Hashes are not kept but recomputed from the arena on rehash.
+// Not thread-safe; one reader owns the table and interns while it parses.
+class SymbolTable {
+    // Largest generator index that goes through the direct table (names of up to four letters)
+    private static final int MAX_BASE26 = 1 << 20;
+    // Readers start a fresh table for the next graph once this many names are interned, so
+    // a long file of mostly distinct names does not grow one table without bound. Graphs
+    // already read keep the table their names came from.
+    static final int MAX_SHARED_SYMBOLS = 1 << 20;
+
+    // Record fields of symbol i, at record[RECORD * i + field]
+    private static final int RECORD = 6;
+    private static final int START = 0, END = 1, OWNER = 2, LOCAL = 3, PREFIX = 4; // PREFIX and PREFIX + 1
+    private static final int PREFIX_BYTES = 8;
+
+    private String[] names = new String[64];
+    private byte[] bytes = new byte[512];              // UTF-8 bytes of all names, back to back
+    private int[] record = new int[RECORD * 64];       // start, end, owner, local index and prefix per symbol
+    private int size;
+    private int bytesUsed;
+
+    private int[] slots = new int[128];                // symbol + 1, 0 when empty
+    private int[] base26 = new int[64];                // generator index -> symbol + 1, 0 when not seen
+
+    private int owners;       // owner ids handed out so far; 0 marks an unclaimed symbol
+    private int currentOwner; // the newest owner, the only one whose local indices are kept here
+
+    public int size() {
+        return size;
+    }
+
+    public String name(int symbol) {
+        return names[symbol];
+    }
+
+    // Returns the symbol for the name, or -1 if it has not been interned
+    public int find(String name) {
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        return find(utf8, 0, utf8.length);
+    }
+
+    public int find(byte[] key, int offset, int length) {
+        int index = base26Index(key, offset, length);
+        if (index >= 0) {
+            return index < base26.length ? base26[index] - 1 : -1;
+        }
+        return probe(key, offset, length, hash(key, offset, length), false);
+    }
+
+    public int intern(String name) {
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        return intern(utf8, 0, utf8.length);
+    }
+
+    // Returns the symbol for the name given as UTF-8 bytes, interning it if needed
+    public int intern(byte[] key, int offset, int length) {
+        int index = base26Index(key, offset, length);
+        if (index >= 0) {
+            if (index >= base26.length) {
+                base26 = Arrays.copyOf(base26, Math.max(index + 1, base26.length * 2));
+            }
+            int entry = base26[index];
+            if (entry == 0) {
+                entry = store(key, offset, length) + 1;
+                base26[index] = entry;
+            }
+            return entry - 1;
+        }
+        return probe(key, offset, length, hash(key, offset, length), true);
+    }
+
+    // Makes room for this many more symbols, so interning them never grows or rehashes the table
+    void ensureCapacity(int additional) {
+        int capacity = size + additional;
+        if (capacity > names.length) {
+            names = Arrays.copyOf(names, capacity);
+            record = Arrays.copyOf(record, RECORD * capacity);
+        }
+        int slotCount = slots.length;
+        while (capacity * 2 > slotCount) {
+            slotCount *= 2;
+        }
+        if (slotCount > slots.length) {
+            rehash(slotCount);
+        }
+    }
+
+    // Current arena; the bytes of symbols interned so far never move within the returned array
+    byte[] utf8Bytes() {
+        return bytes;
+    }
+
+    int nameStart(int symbol) {
+        return record[RECORD * symbol + START];
+    }
+
+    int nameEnd(int symbol) {
+        return record[RECORD * symbol + END];
+    }
+
+    // Registers a new owner of local indices; it replaces the previous one, whose entries
+    // are from then on ignored
+    int newOwner() {
+        currentOwner = ++owners;
+        return currentOwner;
+    }
+
+    int currentOwner() {
+        return currentOwner;
+    }
+
+    // Local index the owner gave the symbol, or -1 if it has not claimed it
+    int local(int symbol, int owner) {
+        int at = RECORD * symbol;
+        return record[at + OWNER] == owner ? record[at + LOCAL] : -1;
+    }
+
+    void claim(int symbol, int owner, int local) {
+        int at = RECORD * symbol;
+        record[at + OWNER] = owner;
+        record[at + LOCAL] = local;
+    }
+
+    // Index of the name in the generator's bijective base-26 numbering, or -1 if it is not such a name
+    private static int base26Index(byte[] key, int offset, int length) {
+        if (length == 0 || length > 4) {
+            return -1;
+        }
+        int index = -1;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = key[i] - 'A';
+            if (digit < 0 || digit >= 26) {
+                return -1;
+            }
+            index = (index + 1) * 26 + digit;
+        }
+        return index < MAX_BASE26 ? index : -1;
+    }
+
+    private int probe(byte[] key, int offset, int length, int hash, boolean insert) {
+        int[] table = slots;
+        int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        for (int entry; (entry = table[slot]) != 0; slot = (slot + 1) & mask) {
+            if (equals(entry - 1, key, offset, length)) {
+                return entry - 1;
+            }
+        }
+        if (!insert) {
+            return -1;
+        }
+        int symbol = store(key, offset, length);
+        table[slot] = symbol + 1;
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return symbol;
+    }
+
+    private int store(byte[] key, int offset, int length) {
+        if (size == names.length) {
+            int capacity = size * 2;
+            names = Arrays.copyOf(names, capacity);
+            record = Arrays.copyOf(record, RECORD * capacity);
+        }
+        int end = bytesUsed;
+        if (end + length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, end + length));
+        }
+        System.arraycopy(key, offset, bytes, end, length);
+        names[size] = new String(key, offset, length, StandardCharsets.UTF_8);
+        int at = RECORD * size;
+        record[at + START] = end;
+        record[at + END] = end + length;
+        record[at + PREFIX] = word(key, offset, length, 0);
+        record[at + PREFIX + 1] = word(key, offset, length, 4);
+        bytesUsed = end + length;
+        return size++;
+    }
+
+    private boolean equals(int symbol, byte[] key, int offset, int length) {
+        int at = RECORD * symbol;
+        int from = record[at + START];
+        if (record[at + END] - from != length
+                || record[at + PREFIX] != word(key, offset, length, 0)
+                || record[at + PREFIX + 1] != word(key, offset, length, 4)) {
+            return false;
+        }
+        for (int i = PREFIX_BYTES; i < length; i++) {
+            if (bytes[from + i] != key[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Bytes at..at + 3 of the name packed into an int, zero past its end
+    private static int word(byte[] key, int offset, int length, int at) {
+        int word = 0;
+        for (int i = at; i < at + 4 && i < length; i++) {
+            word |= (key[offset + i] & 0xFF) << (8 * (i - at));
+        }
+        return word;
+    }
+
+    // Only hashed symbols live in the slot table; base-26 ones are found through the direct table.
+    // Hashes are recomputed from the arena, which is read front to back.
+    private void rehash(int slotCount) {
+        int[] table = new int[slotCount];
+        int mask = slotCount - 1;
+        for (int symbol = 0; symbol < size; symbol++) {
+            int from = record[RECORD * symbol + START];
+            int length = record[RECORD * symbol + END] - from;
+            if (base26Index(bytes, from, length) >= 0) {
+                continue;
+            }
+            int slot = mix(hash(bytes, from, length)) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = symbol + 1;
+        }
+        slots = table;
+    }
+
+    private static int hash(byte[] key, int offset, int length) {
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + key[i];
+        }
+        return hash;
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
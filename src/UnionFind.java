@@ -0,0 +1,50 @@
+// Class for Union-Find data structure (single-threaded).
+// find() is iterative with path halving, so long parent chains cannot overflow the stack.
+class UnionFind {
+    private int[] parent;
+    private int[] rank;
+
+    public UnionFind(int size) {
+        parent = new int[size];
+        rank = new int[size];
+        reset(size);
+    }
+
+    // Makes elements 0..size-1 singletons again, growing the arrays if needed;
+    // costs O(size) however large the arrays have grown
+    public void reset(int size) {
+        if (parent.length < size) {
+            parent = new int[size];
+            rank = new int[size];
+        }
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+            rank[i] = 0;
+        }
+    }
+
+    public int find(int x) {
+        while (parent[x] != x) {
+            // Path halving: point x at its grandparent and continue from there
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    public void union(int x, int y) {
+        int rootX = find(x);
+        int rootY = find(y);
+
+        if (rootX != rootY) {
+            if (rank[rootX] < rank[rootY]) {
+                parent[rootX] = rootY;
+            } else if (rank[rootX] > rank[rootY]) {
+                parent[rootY] = rootX;
+            } else {
+                parent[rootY] = rootX;
+                rank[rootX]++;
+            }
+        }
+    }
+}